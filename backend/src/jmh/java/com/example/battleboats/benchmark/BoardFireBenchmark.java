@@ -0,0 +1,72 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.model.Board;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cât costă tragerea în funcție de mărimea tablei.
+ *
+ * O operație = o tablă nouă (aceeași flotă, ~20% celule ocupate, ca la 10x10) pe care tragem în
+ * toate celulele într-o ordine aleatoare, cu verificarea de final după fiecare hit. Timpul pe
+ * celulă e scorul împărțit la size²; dacă fire/allSunk sunt O(1), el trebuie să rămână constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardFireBenchmark {
+
+    @Param({"10", "16", "32", "64"})
+    public int size;
+
+    private ByteBuffer fleet;
+    private int[] order;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Board board = new Board(size);
+        int cells = size * size;
+        for (int placed = 0; placed < cells / 5; ) {
+            int cell = random.nextInt(cells);
+            if (!board.isOccupied(cell)) {
+                board.occupy(cell);
+                placed++;
+            }
+        }
+        fleet = ByteBuffer.allocate(Board.serializedSize(size));
+        board.writeOccupied(fleet);
+        fleet.flip();
+
+        order = new int[cells];
+        for (int i = 0; i < cells; i++) order[i] = i;
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+    }
+
+    @Benchmark
+    public void fireWholeBoard(Blackhole bh) {
+        Board board = Board.readOccupied(fleet.duplicate());
+        for (int cell : order) {
+            if (board.fire(cell) == Board.HIT && board.allSunk()) break;
+        }
+        bh.consume(board.shotCount());
+    }
+
+    // Doar reconstruirea tablei din buffer, ca s-o putem scădea din fireWholeBoard
+    @Benchmark
+    public Board rebuildOnly() {
+        return Board.readOccupied(fleet.duplicate());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.service.BotTargeting;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Botul: câte mutări pe secundă calculează și în câte lovituri termină un joc.
+ *
+ * - chooseMove: o mutare pe o tablă la jumătatea jocului (~30% celule trase), cu bugetul de 20 ms.
+ * - playGame: un joc întreg contra unei flote aleatoare; scorul e jocuri/s, iar media de
+ *   lovituri până la victorie e shots / games din coloanele secundare.
+ *
+ * touching=false generează flote cu nave care nu se ating și îi spune botului regula.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BotBenchmark {
+
+    private static final int[] BASE_FLEET = {1, 1, 1, 1, 2, 2, 2, 3, 3, 4};
+    private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Param({"10", "32", "64"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean touching;
+
+    private final BotTargeting targeting = new BotTargeting(ForkJoinPool.commonPool(), 32);
+    private final SplittableRandom fleetRandom = new SplittableRandom(7);
+    private int[] fleetLengths;
+    private Board midGame;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long games;
+        public long shots;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            games = 0;
+            shots = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        int copies = Math.max(1, size * size / Board.CELLS);
+        fleetLengths = new int[Board.MIN_SIZE + 1];
+        for (int len : BASE_FLEET) fleetLengths[len] += copies;
+
+        midGame = randomFleet();
+        Random random = new Random(11);
+        for (int i = 0; i < size * size * 3 / 10; i++) midGame.fire(random.nextInt(size * size));
+    }
+
+    private Board randomFleet() {
+        Board board = new Board(size);
+        for (int len = fleetLengths.length - 1; len >= 1; len--) {
+            for (int n = 0; n < fleetLengths[len]; n++) {
+                while (true) {
+                    boolean horizontal = fleetRandom.nextBoolean();
+                    int h = horizontal ? 1 : len, w = horizontal ? len : 1;
+                    int row = fleetRandom.nextInt(size - h + 1), col = fleetRandom.nextInt(size - w + 1);
+                    boolean blocked = touching
+                            ? board.anyOccupied(row, col, h, w)
+                            : board.anyOccupied(row - 1, col - 1, h + 2, w + 2);
+                    if (blocked) continue;
+                    board.occupyRect(row, col, h, w);
+                    break;
+                }
+            }
+        }
+        return board;
+    }
+
+    @Benchmark
+    public BotTargeting.Shot chooseMove() {
+        return targeting.choose(size, midGame.copyShots(), midGame.copyHits(), fleetLengths,
+                touching, BUDGET_NANOS, ThreadLocalRandom.current());
+    }
+
+    @Benchmark
+    public int playGame(Counters counters) {
+        Board board = randomFleet();
+        while (!board.allSunk()) {
+            BotTargeting.Shot shot = targeting.choose(size, board.copyShots(), board.copyHits(), fleetLengths,
+                    touching, BUDGET_NANOS, ThreadLocalRandom.current());
+            board.fire(shot.cell());
+        }
+        counters.games++;
+        counters.shots += board.shotCount();
+        return board.shotCount();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import com.example.battleboats.service.GameService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O tragere prin regulile din {@link GameService#applyShot}: miss (schimbă tura), hit și
+ * hit-ul final (verificarea de victorie + FINISHED).
+ *
+ * Fiecare operație pornește de la un joc proaspăt (tablele refăcute din bytes), ca tragerea să
+ * nu fie "ai mai tras aici"; costul ăsta apare separat în newGameOnly și se scade din celelalte.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FireBenchmark {
+
+    private static final int SHIP_CELL = 0;  // prima celulă din flota de test
+    private static final int EMPTY_CELL = 99;
+
+    private ByteBuffer attacker;
+    private ByteBuffer fresh;
+    private ByteBuffer oneLeft; // toate navele lovite, mai puțin SHIP_CELL
+
+    @Setup
+    public void setup() {
+        Board board = Fixtures.placementValidator(true).validate(Fixtures.fleet(10), 10).board();
+        attacker = serialize(board);
+        fresh = serialize(board);
+
+        for (int cell : board.occupiedCells()) {
+            if (cell != SHIP_CELL) board.fire(cell);
+        }
+        oneLeft = serialize(board);
+    }
+
+    private static ByteBuffer serialize(Board board) {
+        ByteBuffer buf = ByteBuffer.allocate(Board.serializedSize(board.getSize()));
+        board.writeTo(buf);
+        return buf.flip();
+    }
+
+    private Game newGame(ByteBuffer target) {
+        Game game = new Game("bench", "1");
+        game.setPlayer2Id("2");
+        game.setPlayer1Board(Board.readFrom(attacker.duplicate()));
+        game.setPlayer2Board(Board.readFrom(target.duplicate()));
+        game.setStatus("ACTIVE");
+        return game;
+    }
+
+    @Benchmark
+    public Game newGameOnly() {
+        return newGame(fresh);
+    }
+
+    @Benchmark
+    public int miss() {
+        return GameService.applyShot(newGame(fresh), true, EMPTY_CELL);
+    }
+
+    @Benchmark
+    public int hit() {
+        return GameService.applyShot(newGame(fresh), true, SHIP_CELL);
+    }
+
+    @Benchmark
+    public int winningHit() {
+        Game game = newGame(oneLeft);
+        int result = GameService.applyShot(game, true, SHIP_CELL);
+        if (!"FINISHED".equals(game.getStatus())) throw new IllegalStateException("jocul trebuia să se termine");
+        return result;
+    }
+}
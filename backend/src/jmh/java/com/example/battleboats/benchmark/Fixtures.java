@@ -0,0 +1,53 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.service.PlacementValidator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Obiectele din aplicație construite fără Spring, pentru benchmark-uri.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // Flota implicită (id-uri 1..10) pe o tablă 10x10, nave orizontale care nu se ating; rândul 9 și
+    // coloanele 8-9 rămân libere, deci nici copiile din blocurile vecine nu se ating
+    static final int[][] FLEET_10X10 = {
+            {1, 0}, {2, 2}, {3, 4}, {4, 80}, {5, 20}, {6, 23}, {7, 26}, {8, 40}, {9, 44}, {10, 60}
+    };
+
+    /**
+     * Flota implicită repetată în fiecare bloc 10x10 al unei table mai mari.
+     * Merge pentru 10, 20, 30, 40, 50 (size² / 100 copii = exact numărul de blocuri).
+     */
+    static List<ShipController.ShipPlacement> fleet(int boardSize) {
+        int blocks = boardSize / 10;
+        int copies = Math.max(1, boardSize * boardSize / 100);
+        List<ShipController.ShipPlacement> ships = new ArrayList<>(copies * FLEET_10X10.length);
+        for (int b = 0; b < copies; b++) {
+            int blockRow = (b / blocks) * 10, blockCol = (b % blocks) * 10;
+            for (int[] ship : FLEET_10X10) {
+                ShipController.ShipPlacement p = new ShipController.ShipPlacement();
+                p.shipId = (long) ship[0];
+                p.isHorizontal = true;
+                p.startCellIndex = (blockRow + ship[1] / 10) * boardSize + blockCol + ship[1] % 10;
+                ships.add(p);
+            }
+        }
+        return ships;
+    }
+
+    /** Validatorul cu catalogul implicit (fără ShipRepository) și configurația din application.properties. */
+    static PlacementValidator placementValidator(boolean allowTouching) {
+        PlacementValidator validator = new PlacementValidator();
+        ReflectionTestUtils.setField(validator, "allowTouching", allowTouching);
+        ReflectionTestUtils.setField(validator, "maxBoardSize", 64);
+        ReflectionTestUtils.invokeMethod(validator, "init");
+        return validator;
+    }
+}
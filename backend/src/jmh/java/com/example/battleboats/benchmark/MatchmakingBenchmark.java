@@ -0,0 +1,90 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.model.Board;
+import com.example.battleboats.service.GameJournal;
+import com.example.battleboats.service.GameMetrics;
+import com.example.battleboats.service.GameRegistry;
+import com.example.battleboats.service.GameUpdateNotifier;
+import com.example.battleboats.service.MatchRecorder;
+import com.example.battleboats.service.MatchmakingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Împerecherea din /join sub concurență: fiecare operație e un join cu un user nou, deci
+ * jumătate din ele creează un joc și stau la coadă, iar cealaltă jumătate intră peste cineva.
+ * Jocurile pornite sunt scoase imediat din registry, ca memoria să rămână constantă.
+ *
+ * Același benchmark pe 1, 8 și 32 de thread-uri (jurnalul e oprit, ca să măsurăm doar cozile).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchmakingBenchmark {
+
+    private MatchmakingService matchmaking;
+    private GameRegistry registry;
+    private List<ShipController.ShipPlacement> ships;
+    private ByteBuffer fleet;
+    private final AtomicLong userIds = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        registry = new GameRegistry(1000);
+
+        GameUpdateNotifier notifier = new GameUpdateNotifier();
+        ReflectionTestUtils.setField(notifier, "maxParked", 2000);
+        ReflectionTestUtils.setField(notifier, "timeoutMs", 25000L);
+
+        GameJournal journal = new GameJournal(); // enabled = false => evenimentele sunt ignorate
+
+        matchmaking = new MatchmakingService();
+        ReflectionTestUtils.setField(matchmaking, "registry", registry);
+        ReflectionTestUtils.setField(matchmaking, "updateNotifier", notifier);
+        ReflectionTestUtils.setField(matchmaking, "journal", journal);
+        ReflectionTestUtils.setField(matchmaking, "recorder", new MatchRecorder()); // la fel, dezactivat
+        ReflectionTestUtils.setField(matchmaking, "metrics", new GameMetrics(new SimpleMeterRegistry()));
+
+        ships = Fixtures.fleet(10);
+        Board board = Fixtures.placementValidator(true).validate(ships, 10).board();
+        fleet = ByteBuffer.allocate(Board.serializedSize(10));
+        board.writeOccupied(fleet);
+        fleet.flip();
+    }
+
+    private MatchmakingService.JoinResult join() {
+        String userId = Long.toString(userIds.incrementAndGet());
+        MatchmakingService.JoinResult result = matchmaking.join(userId, ships, Board.readOccupied(fleet.duplicate()));
+        if (MatchmakingService.ROLE_PLAYER2.equals(result.role())) registry.remove(result.game().getId());
+        registry.pollAdded(); // în aplicație coada asta o golește GameLifecycleManager
+        return result;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MatchmakingService.JoinResult join1Thread() {
+        return join();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MatchmakingService.JoinResult join8Threads() {
+        return join();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public MatchmakingService.JoinResult join32Threads() {
+        return join();
+    }
+}
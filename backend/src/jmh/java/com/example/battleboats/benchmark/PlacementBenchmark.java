@@ -0,0 +1,52 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.service.PlacementValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validarea flotei la /join (înlocuiește vechiul GameController.calculateOccupiedCells):
+ * flotă validă de la capăt la capăt, plus un caz respins (suprapunere la ultima navă).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+    @Param({"10", "20", "40"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean allowTouching;
+
+    private PlacementValidator validator;
+    private List<ShipController.ShipPlacement> valid;
+    private List<ShipController.ShipPlacement> overlapping;
+
+    @Setup
+    public void setup() {
+        validator = Fixtures.placementValidator(allowTouching);
+        valid = Fixtures.fleet(size);
+        overlapping = Fixtures.fleet(size);
+        ShipController.ShipPlacement last = overlapping.get(overlapping.size() - 1);
+        last.startCellIndex = overlapping.get(0).startCellIndex;
+
+        if (!validator.validate(valid, size).isValid()) throw new IllegalStateException("flota de test e invalida");
+    }
+
+    @Benchmark
+    public PlacementValidator.Result validFleet() {
+        return validator.validate(valid, size);
+    }
+
+    @Benchmark
+    public PlacementValidator.Result rejectedFleet() {
+        return validator.validate(overlapping, size);
+    }
+}
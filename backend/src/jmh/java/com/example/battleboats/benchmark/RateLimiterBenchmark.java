@@ -0,0 +1,86 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.service.GameMetrics;
+import com.example.battleboats.service.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Costul limitării per user pe un request de joc (RateLimiter.tryAcquire).
+ *
+ * Limita e pusă foarte sus, ca să măsurăm drumul obișnuit (token disponibil) și nu 429-urile.
+ * Un singur thread, apoi 8 thread-uri pe useri diferiți și 8 pe același user (CAS-uri în conflict).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private RateLimiter limiter;
+    private String[] userIds;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int next;
+
+        @Setup
+        public void setup(RateLimiterBenchmark benchmark) {
+            next = benchmark.threadIds.getAndIncrement() * 997 % USERS;
+        }
+
+        String nextUser(String[] userIds) {
+            if (++next == USERS) next = 0;
+            return userIds[next];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "metrics", new GameMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(limiter, "maxKeys", 100_000);
+        ReflectionTestUtils.setField(limiter, "joinPerSecond", 1e9);
+        ReflectionTestUtils.setField(limiter, "joinBurst", 1000);
+        ReflectionTestUtils.setField(limiter, "firePerSecond", 1e9);
+        ReflectionTestUtils.setField(limiter, "fireBurst", 1000);
+        ReflectionTestUtils.setField(limiter, "statusPerSecond", 1e9);
+        ReflectionTestUtils.setField(limiter, "statusBurst", 1000);
+        ReflectionTestUtils.setField(limiter, "pollPerSecond", 1e9);
+        ReflectionTestUtils.setField(limiter, "pollBurst", 1000);
+        ReflectionTestUtils.invokeMethod(limiter, "init");
+
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = Integer.toString(i + 1);
+            limiter.tryAcquire(RateLimiter.Endpoint.FIRE, userIds[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long acquire1Thread(ThreadState state) {
+        return limiter.tryAcquire(RateLimiter.Endpoint.FIRE, state.nextUser(userIds));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long acquire8ThreadsManyUsers(ThreadState state) {
+        return limiter.tryAcquire(RateLimiter.Endpoint.FIRE, state.nextUser(userIds));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long acquire8ThreadsSameUser() {
+        return limiter.tryAcquire(RateLimiter.Endpoint.FIRE, userIds[0]);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.battleboats.benchmark;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import com.example.battleboats.model.GameDelta;
+import com.example.battleboats.model.LeaderboardEntry;
+import com.example.battleboats.model.PlayerView;
+import com.example.battleboats.service.BinaryWire;
+import com.example.battleboats.service.GameService;
+import com.example.battleboats.service.GameViews;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializarea JSON (Jackson) a răspunsurilor frecvente: jocul întreg (vechiul /status fără since),
+ * vederea unui jucător (noul /status), delta pentru long-poll și o pagină de clasament.
+ *
+ * binary* e formatul compact din BinaryWire (Accept: application/x-battleboats).
+ * cached* măsoară calea din GameViews când versiunea jocului nu s-a schimbat (bytes gata făcuți).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final GameViews views = new GameViews(mapper);
+
+    // Câte lovituri s-au tras deja în joc
+    @Param({"0", "60"})
+    public int shots;
+
+    private Game game;
+    private List<LeaderboardEntry> leaderboardPage;
+
+    @Setup
+    public void setup() {
+        Board board = Fixtures.placementValidator(true).validate(Fixtures.fleet(10), 10).board();
+        game = new Game("3f1c2a9e-7b44-4d0e-9a51-0c6f2d8b1e77", "1");
+        game.setPlayer2Id("2");
+        game.setPlayer1Ships(Fixtures.fleet(10));
+        game.setPlayer2Ships(Fixtures.fleet(10));
+        game.setPlayer1Board(board);
+        game.setPlayer2Board(Board.readOccupied(serialize(board)));
+        game.setStatus("ACTIVE");
+
+        Random random = new Random(3);
+        for (int i = 0; i < shots && "ACTIVE".equals(game.getStatus()); i++) {
+            boolean p1 = game.getPlayer1Id().equals(game.getCurrentTurn());
+            GameService.applyShot(game, p1, random.nextInt(100));
+        }
+
+        leaderboardPage = new ArrayList<>();
+        for (int i = 0; i < 10; i++) leaderboardPage.add(new LeaderboardEntry("player" + i, 100 - i, 60 - i));
+    }
+
+    private static java.nio.ByteBuffer serialize(Board board) {
+        java.nio.ByteBuffer buf = java.nio.ByteBuffer.allocate(Board.serializedSize(board.getSize()));
+        board.writeOccupied(buf);
+        return buf.flip();
+    }
+
+    @Benchmark
+    public byte[] fullGame() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public byte[] playerView() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(PlayerView.of(game, true));
+    }
+
+    @Benchmark
+    public byte[] binaryPlayerView() {
+        return BinaryWire.encode(PlayerView.of(game, true));
+    }
+
+    @Benchmark
+    public byte[] cachedPlayerView() {
+        return views.playerView(game, true, false);
+    }
+
+    @Benchmark
+    public byte[] cachedDelta() {
+        return views.delta(game, 0, false);
+    }
+
+    @Benchmark
+    public byte[] deltaSinceStart() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(GameDelta.since(game, 0));
+    }
+
+    @Benchmark
+    public byte[] binaryDeltaSinceStart() {
+        return BinaryWire.encode(GameDelta.since(game, 0));
+    }
+
+    @Benchmark
+    public byte[] leaderboardEntry() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(leaderboardPage.get(0));
+    }
+
+    @Benchmark
+    public byte[] leaderboardPage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(leaderboardPage);
+    }
+}
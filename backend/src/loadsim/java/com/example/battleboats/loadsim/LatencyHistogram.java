@@ -0,0 +1,69 @@
+package com.example.battleboats.loadsim;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramă de latențe fără lock-uri, în microsecunde.
+ *
+ * Sub 64 µs fiecare valoare are bucket-ul ei; peste, fiecare putere a lui 2 e împărțită în 32 de
+ * bucket-uri egale, deci eroarea relativă a unui percentil e sub ~3%. Memorie fixă (~8 KB),
+ * oricâte milioane de request-uri înregistrăm.
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR = 64;
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40; // ~12 zile, mult peste orice timeout
+
+    private final AtomicLongArray buckets = new AtomicLongArray(LINEAR + (MAX_EXPONENT - 5) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long micros) {
+        if (micros < 0) micros = 0;
+        buckets.incrementAndGet(indexOf(micros));
+        count.increment();
+        max.accumulate(micros);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long maxMicros() {
+        return max.get();
+    }
+
+    // Valoarea sub care se află fracțiunea p (0..1) din înregistrări (mijlocul bucket-ului)
+    long percentileMicros(double p) {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) total += buckets.get(i);
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return Math.min(middleOf(i), maxMicros());
+        }
+        return maxMicros();
+    }
+
+    private static int indexOf(long v) {
+        if (v < LINEAR) return (int) v;
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(v), MAX_EXPONENT - 1);
+        int sub = (int) (v >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 6) * SUB_BUCKETS + sub;
+    }
+
+    private static long middleOf(int index) {
+        if (index < LINEAR) return index;
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 6;
+        int sub = (index - LINEAR) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return (1L << exponent) + sub * width + width / 2;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.battleboats.loadsim;
+
+import com.example.battleboats.BattleboatsApplication;
+import com.example.battleboats.loadsim.Metrics.Endpoint;
+import com.example.battleboats.service.GameUpdateNotifier;
+import com.example.battleboats.service.PlacementValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.stream.Stream;
+
+/**
+ * Simulator de încărcare în proces: pornește aplicația cu profilul "loadsim" (H2 în memorie în loc
+ * de MySQL) și joacă N perechi de jucători cap-coadă prin HTTP, pe drumul real al clientului web
+ * ({@link SimulatedPlayer}). La final tipărește p50/p95/p99 pe endpoint, jocuri/s și heap/GC.
+ *
+ * Rulare:
+ *   mvn -Ploadsim test-compile exec:exec@loadsim -Dloadsim.args="--loadsim.pairs=2000"
+ *
+ * Setările sunt în application-loadsim.properties; orice proprietate (și a aplicației, ex.
+ * --battleboats.poll.max-parked=5000) se poate suprascrie din linia de comandă.
+ *
+ * Codul de ieșire e 1 dacă au existat erori, jucători blocați, depășirea lui loadsim.max-duration-s
+ * sau (când e setat) un p99 peste loadsim.max-p99-ms, ca să poată rula ca test de regresie.
+ * Clientul rulează în același JVM, deci heap-ul și GC-ul raportate îl includ și pe el.
+ */
+public final class LoadSimulator {
+
+    record Settings(int pairs, int gamesPerPair, int boardSize, long thinkMs, long leaveDelayMs,
+                    long rampUpMs, long maxDurationS, long reportIntervalMs, long maxP99Ms,
+                    int clientThreads, long pollTimeoutMs, PlacementValidator placement) {
+
+        static Settings from(ConfigurableApplicationContext ctx) {
+            Environment env = ctx.getEnvironment();
+            return new Settings(
+                    env.getProperty("loadsim.pairs", Integer.class, 1000),
+                    env.getProperty("loadsim.games-per-pair", Integer.class, 1),
+                    env.getProperty("loadsim.board-size", Integer.class, 10),
+                    env.getProperty("loadsim.think-ms", Long.class, 0L),
+                    env.getProperty("loadsim.leave-delay-ms", Long.class, 1000L),
+                    env.getProperty("loadsim.ramp-up-ms", Long.class, 5000L),
+                    env.getProperty("loadsim.max-duration-s", Long.class, 600L),
+                    env.getProperty("loadsim.report-interval-ms", Long.class, 5000L),
+                    env.getProperty("loadsim.max-p99-ms", Long.class, 0L),
+                    env.getProperty("loadsim.client-threads", Integer.class, Math.max(4, Runtime.getRuntime().availableProcessors() * 2)),
+                    env.getProperty("battleboats.poll.timeout-ms", Long.class, 25000L),
+                    ctx.getBean(PlacementValidator.class));
+        }
+    }
+
+    private final ConfigurableApplicationContext ctx;
+    private final Settings settings;
+    private final Metrics metrics = new Metrics();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final LongAccumulator peakHeap = new LongAccumulator(Math::max, 0);
+
+    private LoadSimulator(ConfigurableApplicationContext ctx) {
+        this.ctx = ctx;
+        this.settings = Settings.from(ctx);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Jurnal nou la fiecare rulare, altfel recovery-ul ar reîncărca jocurile rulării anterioare;
+        // replay-urile tot acolo, ca să nu umplem ./data/replays cu meciurile simulate
+        Path journalDir = Files.createTempDirectory("battleboats-loadsim");
+        String[] springArgs = new String[args.length + 2];
+        springArgs[0] = "--battleboats.journal.dir=" + journalDir;
+        springArgs[1] = "--battleboats.replay.dir=" + journalDir.resolve("replays");
+        System.arraycopy(args, 0, springArgs, 2, args.length);
+
+        SpringApplication app = new SpringApplication(BattleboatsApplication.class);
+        app.setAdditionalProfiles("loadsim");
+
+        int exitCode;
+        try (ConfigurableApplicationContext ctx = app.run(springArgs)) {
+            exitCode = new LoadSimulator(ctx).run();
+        } finally {
+            deleteRecursively(journalDir);
+        }
+        System.exit(exitCode);
+    }
+
+    private int run() throws Exception {
+        int port = ctx.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        GameUpdateNotifier notifier = ctx.getBean(GameUpdateNotifier.class);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService clientPool = Executors.newFixedThreadPool(settings.clientThreads(), r -> {
+            Thread t = new Thread(r, "loadsim-client-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "loadsim-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(clientPool)
+                .build();
+        ObjectMapper mapper = new ObjectMapper();
+
+        int players = settings.pairs() * 2;
+        System.out.printf("%nLoad simulation: %d perechi (%d jucatori) x %d jocuri, tabla %dx%d, think %d ms, ramp-up %d ms%n",
+                settings.pairs(), players, settings.gamesPerPair(), settings.boardSize(), settings.boardSize(),
+                settings.thinkMs(), settings.rampUpMs());
+
+        Map<String, long[]> gcBefore = gcCounters();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulate(memory.getHeapMemoryUsage().getUsed()), 0, 100, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Void>> all = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            SimulatedPlayer player = new SimulatedPlayer(i, settings, http, mapper, metrics, clientPool, "http://127.0.0.1:" + port);
+            all.add(player.start(settings.rampUpMs() * i / players));
+        }
+        CompletableFuture<Void> finished = CompletableFuture.allOf(all.toArray(new CompletableFuture[0]));
+
+        long deadline = start + TimeUnit.SECONDS.toNanos(settings.maxDurationS());
+        boolean timedOut = false;
+        while (!finished.isDone()) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                timedOut = true;
+                break;
+            }
+            try {
+                finished.get(Math.min(left, TimeUnit.MILLISECONDS.toNanos(settings.reportIntervalMs())), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                System.out.printf("[%5.1fs] jocuri terminate %d / pornite %d, trageri %d, poll-uri parcate %d, heap %d MB%n",
+                        seconds(System.nanoTime() - start), metrics.gamesFinished.sum(), metrics.gamesStarted.sum(),
+                        metrics.shots.sum(), notifier.getParkedCount(), memory.getHeapMemoryUsage().getUsed() >> 20);
+            }
+        }
+        double elapsed = seconds(System.nanoTime() - start);
+        sampler.shutdownNow();
+
+        report(elapsed, gcBefore, players);
+        clientPool.shutdownNow();
+
+        boolean failed = timedOut || metrics.totalErrors() > 0 || metrics.playersFailed.sum() > 0;
+        if (timedOut) System.out.printf("ESEC: simularea nu s-a terminat in %d s%n", settings.maxDurationS());
+        if (settings.maxP99Ms() > 0) {
+            for (Endpoint e : Endpoint.values()) {
+                if (e == Endpoint.POLL) continue; // long-poll-ul așteaptă adversarul prin definiție
+                long p99 = metrics.latency(e).percentileMicros(0.99) / 1000;
+                if (p99 > settings.maxP99Ms()) {
+                    System.out.printf("ESEC: p99 %s = %d ms > %d ms%n", e.label, p99, settings.maxP99Ms());
+                    failed = true;
+                }
+            }
+        }
+        return failed ? 1 : 0;
+    }
+
+    private void report(double elapsed, Map<String, long[]> gcBefore, int players) {
+        System.out.printf("%n%-28s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "erori", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Endpoint e : Endpoint.values()) {
+            LatencyHistogram h = metrics.latency(e);
+            System.out.printf("%-28s %9d %7d %9.2f %9.2f %9.2f %9.2f%n", e.label, h.count(), metrics.errors(e),
+                    h.percentileMicros(0.50) / 1000.0, h.percentileMicros(0.95) / 1000.0,
+                    h.percentileMicros(0.99) / 1000.0, h.maxMicros() / 1000.0);
+        }
+        System.out.println("(poll = long-poll: include asteptarea mutarii adversarului)");
+
+        long games = metrics.gamesFinished.sum();
+        System.out.printf("%nDurata %.1f s: %d jocuri terminate => %.1f jocuri/s, %d trageri => %.0f trageri/s%n",
+                elapsed, games, games / elapsed, metrics.shots.sum(), metrics.shots.sum() / elapsed);
+        System.out.printf("Jucatori: %d terminati, %d esuati, %d blocati; jocuri disparute (404) %d, trageri respinse %d, auth 503 reincercate %d%n",
+                metrics.playersDone.sum(), metrics.playersFailed.sum(),
+                players - metrics.playersDone.sum() - metrics.playersFailed.sum(),
+                metrics.gamesGone.sum(), metrics.shotsRejected.sum(), metrics.authRetries.sum());
+
+        long maxHeap = memory.getHeapMemoryUsage().getMax();
+        System.out.printf("%nHeap: varf %d MB din %s, acum %d MB (server + client in acelasi JVM)%n",
+                peakHeap.get() >> 20, maxHeap < 0 ? "nelimitat" : (maxHeap >> 20) + " MB",
+                memory.getHeapMemoryUsage().getUsed() >> 20);
+        long gcMillis = 0;
+        for (Map.Entry<String, long[]> gc : gcCounters().entrySet()) {
+            long[] before = gcBefore.getOrDefault(gc.getKey(), new long[2]);
+            long count = gc.getValue()[0] - before[0], millis = gc.getValue()[1] - before[1];
+            gcMillis += millis;
+            System.out.printf("GC %-24s %6d colectari %8d ms%n", gc.getKey(), count, millis);
+        }
+        System.out.printf("Timp in GC: %.2f%% din durata%n%n", 100.0 * gcMillis / (elapsed * 1000));
+    }
+
+    private static Map<String, long[]> gcCounters() {
+        Map<String, long[]> out = new LinkedHashMap<>();
+        ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .sorted(Comparator.comparing(GarbageCollectorMXBean::getName))
+                .forEach(gc -> out.put(gc.getName(), new long[]{gc.getCollectionCount(), gc.getCollectionTime()}));
+        return out;
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.battleboats.loadsim;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Ce adună simulatorul: latențe și erori pe endpoint, plus numărătorile pe jocuri. */
+final class Metrics {
+
+    enum Endpoint {
+        REGISTER("POST /api/auth/register"),
+        LOGIN("POST /api/auth/login"),
+        USER("GET  /api/auth/user/{u}"),
+        JOIN("POST /api/game/join"),
+        SKINS("GET  /api/skins/{id}"),
+        POLL("GET  /api/game/status/poll"),
+        FIRE("POST /api/game/fire"),
+        LEAVE("POST /api/game/leave");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<Endpoint, LatencyHistogram> latency = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+
+    final LongAdder gamesStarted = new LongAdder();
+    final LongAdder gamesFinished = new LongAdder();
+    // Jocul a dispărut din registry înainte ca jucătorul să vadă FINISHED (404 la poll)
+    final LongAdder gamesGone = new LongAdder();
+    // /fire a răspuns 200 cu {"error": ...} (ex. "Nu e rândul tău!")
+    final LongAdder shotsRejected = new LongAdder();
+    final LongAdder shots = new LongAdder();
+    // register/login respinse cu 503 (pool-ul de BCrypt plin) și reîncercate; nu sunt erori
+    final LongAdder authRetries = new LongAdder();
+    final LongAdder playersFailed = new LongAdder();
+    final LongAdder playersDone = new LongAdder();
+
+    Metrics() {
+        for (Endpoint e : Endpoint.values()) {
+            latency.put(e, new LatencyHistogram());
+            errors.put(e, new LongAdder());
+        }
+    }
+
+    void record(Endpoint endpoint, long nanos, boolean error) {
+        latency.get(endpoint).record(nanos / 1000);
+        if (error) errors.get(endpoint).increment();
+    }
+
+    LatencyHistogram latency(Endpoint endpoint) {
+        return latency.get(endpoint);
+    }
+
+    long errors(Endpoint endpoint) {
+        return errors.get(endpoint).sum();
+    }
+
+    long totalErrors() {
+        long n = 0;
+        for (LongAdder e : errors.values()) n += e.sum();
+        return n;
+    }
+}
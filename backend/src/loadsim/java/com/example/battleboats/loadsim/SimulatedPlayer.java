@@ -0,0 +1,350 @@
+package com.example.battleboats.loadsim;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.loadsim.Metrics.Endpoint;
+import com.example.battleboats.service.MatchmakingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Un jucător simulat, cu aceeași succesiune de request-uri ca frontend-ul:
+ *
+ * - index.html: register, login (păstrăm tokenul de sesiune), apoi /api/auth/user/{username} pentru id (game.js);
+ * - game.html: /join cu o flotă aleatoare validă (join/fire/leave trimit "Authorization: Bearer");
+ * - battle.html: /api/skins/{id}, apoi bucla de long-poll (304 => reluăm imediat, altă eroare =>
+ *   pauză de o secundă) și /fire când delta spune că e rândul nostru; la FINISHED, /leave
+ *   ("Play again") și următorul joc.
+ *
+ * Totul e asincron (HttpClient.sendAsync), deci mii de jucători încap în câteva thread-uri.
+ * Ca în browser, long-poll-ul rămâne parcat și în timp ce tragem; tragerea îl trezește.
+ *
+ * Ținta: celule aleatoare, iar după un hit vecinii lui (cum joacă un om, nu botul).
+ */
+final class SimulatedPlayer {
+
+    // Pauza din battle.html după un răspuns de eroare la poll
+    private static final long POLL_RETRY_MS = 1000;
+    private static final long AUTH_RETRY_MS = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadSimulator.Settings settings;
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+    private final Metrics metrics;
+    private final Executor executor;
+    private final String baseUrl;
+    private final String username;
+    private final Random random;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private String userId;
+    private String token;
+    private int gamesLeft;
+
+    // Starea jocului curent; bucla de poll și răspunsurile de la /fire rulează pe thread-uri diferite.
+    // Deltele și răspunsurile de la /fire pot sosi în orice ordine, așa că le ordonăm după numărul
+    // de trageri din joc: câștigă starea cu mai multe trageri (la egalitate e aceeași stare).
+    private String gameId;
+    private String role;
+    private long version;       // cursorul pentru long-poll
+    private int deltaMoves;     // trageri văzute prin delte
+    private int moves;          // trageri în starea pe care o credem curentă
+    private boolean myTurn;
+    private boolean firing;
+    private int firedAtMoves;
+    private boolean[] shot;
+    private int[] order;
+    private int nextInOrder;
+    private final Deque<Integer> around = new ArrayDeque<>();
+
+    SimulatedPlayer(int index, LoadSimulator.Settings settings, HttpClient http, ObjectMapper mapper,
+                    Metrics metrics, Executor executor, String baseUrl) {
+        this.settings = settings;
+        this.http = http;
+        this.mapper = mapper;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.baseUrl = baseUrl;
+        this.username = "loadsim-" + index;
+        this.random = new Random(index);
+        this.gamesLeft = settings.gamesPerPair();
+    }
+
+    CompletableFuture<Void> start(long delayMs) {
+        CompletableFuture.runAsync(this::register, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor));
+        return done;
+    }
+
+    // --- Cont ---
+
+    // 503 = pool-ul de BCrypt e plin: reîncercăm după Retry-After, ca un om care mai apasă o dată
+    private void register() {
+        send(Endpoint.REGISTER, post("/api/auth/register", credentials()), registered -> {
+            if (registered.statusCode() == 503) { retry(this::register); return; }
+            if (registered.statusCode() != 200) { fail(); return; }
+            login();
+        });
+    }
+
+    private void login() {
+        send(Endpoint.LOGIN, post("/api/auth/login", credentials()), login -> {
+            if (login.statusCode() == 503) { retry(this::login); return; }
+            JsonNode session = json(login);
+            if (login.statusCode() != 200 || session == null || !session.hasNonNull("token")) { fail(); return; }
+            token = session.get("token").asText();
+            send(Endpoint.USER, get("/api/auth/user/" + encode(username)), user -> {
+                JsonNode node = json(user);
+                if (user.statusCode() != 200 || node == null || !node.hasNonNull("id")) { fail(); return; }
+                userId = node.get("id").asText();
+                joinNext();
+            });
+        });
+    }
+
+    private Map<String, String> credentials() {
+        return Map.of("username", username, "password", "loadsim-" + username);
+    }
+
+    private void retry(Runnable step) {
+        metrics.authRetries.increment();
+        CompletableFuture.runAsync(step, CompletableFuture.delayedExecutor(AUTH_RETRY_MS, TimeUnit.MILLISECONDS, executor));
+    }
+
+    // --- Un joc ---
+
+    private void joinNext() {
+        if (gamesLeft-- == 0) {
+            metrics.playersDone.increment();
+            done.complete(null);
+            return;
+        }
+
+        List<ShipController.ShipPlacement> ships = settings.placement().randomPlacements(settings.boardSize(), random);
+        String url = "/api/game/join?boardSize=" + settings.boardSize();
+        send(Endpoint.JOIN, post(url, ships), joined -> {
+            JsonNode node = json(joined);
+            if (joined.statusCode() != 200 || node == null || !node.hasNonNull("gameId")) { fail(); return; }
+            newGame(node.get("gameId").asText(), node.path("role").asText());
+
+            send(Endpoint.SKINS, get("/api/skins/" + userId), skins -> poll());
+        });
+    }
+
+    private synchronized void newGame(String gameId, String role) {
+        this.gameId = gameId;
+        this.role = role;
+        this.version = -1;
+        this.deltaMoves = 0;
+        this.moves = 0;
+        this.myTurn = false;
+        this.firing = false;
+
+        int cells = settings.boardSize() * settings.boardSize();
+        shot = new boolean[cells];
+        order = new int[cells];
+        for (int i = 0; i < cells; i++) order[i] = i;
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1), t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        nextInOrder = 0;
+        around.clear();
+        if (MatchmakingService.ROLE_PLAYER1.equals(role)) metrics.gamesStarted.increment();
+    }
+
+    private void poll() {
+        long since;
+        synchronized (this) {
+            since = version;
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/game/status/poll?gameId=" + gameId + "&since=" + since))
+                .timeout(Duration.ofMillis(settings.pollTimeoutMs() + REQUEST_TIMEOUT.toMillis()))
+                .GET().build();
+
+        send(Endpoint.POLL, request, response -> {
+            int status = response.statusCode();
+            if (status == 304) { poll(); return; }
+            if (status == 404) { metrics.gamesGone.increment(); joinNext(); return; }
+            JsonNode delta = json(response);
+            if (status != 200 || delta == null) { retryPoll(); return; }
+
+            String gameStatus = delta.path("status").asText();
+            synchronized (this) {
+                version = delta.path("version").asLong();
+                deltaMoves += delta.path("shotsAtPlayer1").size() + delta.path("shotsAtPlayer2").size();
+                if (deltaMoves >= moves) {
+                    moves = deltaMoves;
+                    myTurn = "ACTIVE".equals(gameStatus) && userId.equals(delta.path("currentTurn").asText());
+                }
+            }
+            if ("FINISHED".equals(gameStatus)) {
+                gameOver();
+                return;
+            }
+            maybeFire();
+            poll();
+        }, this::retryPoll);
+    }
+
+    private void retryPoll() {
+        CompletableFuture.runAsync(this::poll, CompletableFuture.delayedExecutor(POLL_RETRY_MS, TimeUnit.MILLISECONDS, executor));
+    }
+
+    private void maybeFire() {
+        int cell;
+        synchronized (this) {
+            if (firing || !myTurn) return;
+            firing = true;
+            firedAtMoves = moves;
+            cell = nextTarget();
+        }
+        if (settings.thinkMs() > 0) {
+            CompletableFuture.runAsync(() -> fire(cell),
+                    CompletableFuture.delayedExecutor(settings.thinkMs(), TimeUnit.MILLISECONDS, executor));
+        } else {
+            fire(cell);
+        }
+    }
+
+    private void fire(int cell) {
+        String url = "/api/game/fire?gameId=" + gameId + "&cellIndex=" + cell;
+        send(Endpoint.FIRE, post(url, null), response -> {
+            JsonNode result = json(response);
+            boolean accepted = response.statusCode() == 200 && result != null && !result.has("error");
+            synchronized (this) {
+                firing = false;
+                if (!accepted) {
+                    // n-ar trebui să se întâmple; nu insistăm, așteptăm următoarea delta
+                    metrics.shotsRejected.increment();
+                    myTurn = false;
+                } else {
+                    metrics.shots.increment();
+                    if (result.path("hit").asBoolean()) aroundHit(cell);
+
+                    // Când am tras era rândul nostru, deci serverul era exact la firedAtMoves trageri
+                    // și răspunsul descrie starea de după tragerea firedAtMoves + 1
+                    if (firedAtMoves + 1 >= moves) {
+                        moves = firedAtMoves + 1;
+                        myTurn = "ACTIVE".equals(result.path("gameStatus").asText())
+                                && userId.equals(result.path("nextTurn").asText());
+                    }
+                }
+            }
+            maybeFire();
+        }, () -> {
+            synchronized (this) {
+                firing = false;
+            }
+        });
+    }
+
+    private void gameOver() {
+        if (MatchmakingService.ROLE_PLAYER1.equals(role)) metrics.gamesFinished.increment();
+
+        // Ecranul de final, apoi "Play again" (battle.html face /leave)
+        CompletableFuture.runAsync(() ->
+                send(Endpoint.LEAVE, post("/api/game/leave?gameId=" + gameId, null), left -> joinNext()),
+                CompletableFuture.delayedExecutor(settings.leaveDelayMs(), TimeUnit.MILLISECONDS, executor));
+    }
+
+    private void fail() {
+        metrics.playersFailed.increment();
+        done.complete(null);
+    }
+
+    // --- Țintire ---
+
+    private int nextTarget() {
+        while (!around.isEmpty()) {
+            int cell = around.pop();
+            if (!shot[cell]) return take(cell);
+        }
+        while (nextInOrder < order.length - 1 && shot[order[nextInOrder]]) nextInOrder++;
+        return take(order[nextInOrder]);
+    }
+
+    private int take(int cell) {
+        shot[cell] = true;
+        return cell;
+    }
+
+    private void aroundHit(int cell) {
+        int size = settings.boardSize(), row = cell / size, col = cell % size;
+        if (row > 0) around.push(cell - size);
+        if (row < size - 1) around.push(cell + size);
+        if (col > 0) around.push(cell - 1);
+        if (col < size - 1) around.push(cell + 1);
+    }
+
+    // --- HTTP ---
+
+    private void send(Endpoint endpoint, HttpRequest request, Consumer<HttpResponse<String>> onResponse) {
+        send(endpoint, request, onResponse, this::fail);
+    }
+
+    // Măsurăm până la ultimul byte din body; orice status >= 400 (în afară de 503, reîncercat) sau excepție e eroare pe endpoint
+    private void send(Endpoint endpoint, HttpRequest request, Consumer<HttpResponse<String>> onResponse, Runnable onFailure) {
+        long start = System.nanoTime();
+        http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenCompleteAsync((response, error) -> {
+            long elapsed = System.nanoTime() - start;
+            metrics.record(endpoint, elapsed, error != null || response.statusCode() >= 400 && response.statusCode() != 503);
+            try {
+                if (error != null) onFailure.run();
+                else onResponse.accept(response);
+            } catch (RuntimeException e) {
+                onFailure.run();
+            }
+        }, executor);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        if (body == null) return builder.POST(HttpRequest.BodyPublishers.noBody()).build();
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        try {
+            return mapper.readTree(response.body());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.battleboats.config;
+
+import com.example.battleboats.service.AuthTokens;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Identifică jucătorul pe acțiunile de joc (join / fire / leave) din tokenul semnat primit la login
+ * ("Authorization: Bearer ..."), nu din parametrul userId trimis de client.
+ *
+ * userId-ul din token ajunge în controller ca request attribute {@link #USER_ID}. Dacă clientul
+ * mai trimite și ?userId=, trebuie să fie același, altfel 403.
+ */
+@Component
+public class AuthInterceptor implements HandlerInterceptor {
+
+    public static final String USER_ID = "battleboats.userId";
+
+    private static final String BEARER = "Bearer ";
+
+    @Autowired
+    private AuthTokens tokens;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) return true; // preflight CORS
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String userId = header != null && header.startsWith(BEARER) ? tokens.verify(header.substring(BEARER.length())) : null;
+        if (userId == null) {
+            return reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Autentificare necesară! Loghează-te din nou.");
+        }
+
+        String claimed = request.getParameter("userId");
+        if (claimed != null && !claimed.equals(userId)) {
+            return reject(response, HttpServletResponse.SC_FORBIDDEN, "userId nu corespunde sesiunii!");
+        }
+
+        request.setAttribute(USER_ID, userId);
+        return true;
+    }
+
+    static boolean reject(HttpServletResponse response, int status, String error) throws IOException {
+        response.setStatus(status);
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + error + "\"}");
+        return false;
+    }
+}
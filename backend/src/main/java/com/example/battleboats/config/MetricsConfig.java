@@ -0,0 +1,140 @@
+package com.example.battleboats.config;
+
+import com.example.battleboats.model.Game;
+import com.example.battleboats.service.BotOpponent;
+import com.example.battleboats.service.GameLifecycleManager;
+import com.example.battleboats.service.GameRegistry;
+import com.example.battleboats.service.GameUpdateNotifier;
+import com.example.battleboats.service.LeaderboardIndex;
+import com.example.battleboats.service.MatchHistoryService;
+import com.example.battleboats.service.MatchRecorder;
+import com.example.battleboats.service.MatchmakingService;
+import com.example.battleboats.service.PasswordHasher;
+import com.example.battleboats.service.RankedMatchmaking;
+import com.example.battleboats.service.RateLimiter;
+import com.example.battleboats.service.SkinsCache;
+import com.example.battleboats.service.StatsCache;
+import com.example.battleboats.service.StatsWriteBehind;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Gauge-urile și contoarele citite din serviciile existente (ce returna înainte /api/game/debug).
+ * Valorile se calculează doar la citire (/actuator/prometheus), deci nu costă nimic pe request-uri.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> STATUSES = List.of("WAITING", "ACTIVE", "FINISHED");
+
+    @Bean
+    public MeterBinder gameMeters(GameRegistry games, MatchmakingService matchmaking, RankedMatchmaking ranked,
+                                  GameUpdateNotifier updateNotifier, GameLifecycleManager lifecycle, BotOpponent bots,
+                                  RateLimiter rateLimiter) {
+        return registry -> {
+            for (String status : STATUSES) {
+                Gauge.builder("battleboats.games", games, g -> countByStatus(g, status))
+                        .description("Jocuri în memorie, pe status")
+                        .tag("status", status)
+                        .register(registry);
+            }
+            Gauge.builder("battleboats.games.archived", games, GameRegistry::archivedSize)
+                    .description("Jocuri terminate păstrate în arhivă")
+                    .register(registry);
+            Gauge.builder("battleboats.matchmaking.waiting", matchmaking, MatchmakingService::getWaitingCount)
+                    .description("Jucători la coadă")
+                    .register(registry);
+            Gauge.builder("battleboats.matchmaking.ranked.waiting", ranked, RankedMatchmaking::getWaitingCount)
+                    .description("Jucători la coada ranked")
+                    .register(registry);
+            Gauge.builder("battleboats.poll.parked", updateNotifier, GameUpdateNotifier::getParkedCount)
+                    .description("Long-poll-uri parcate")
+                    .register(registry);
+
+            FunctionCounter.builder("battleboats.games.expired", lifecycle, GameLifecycleManager::getEvictedWaiting)
+                    .tag("reason", "waiting-evicted").register(registry);
+            FunctionCounter.builder("battleboats.games.expired", lifecycle, GameLifecycleManager::getForfeitedActive)
+                    .tag("reason", "active-forfeited").register(registry);
+            FunctionCounter.builder("battleboats.games.expired", lifecycle, GameLifecycleManager::getArchivedFinished)
+                    .tag("reason", "finished-archived").register(registry);
+
+            Gauge.builder("battleboats.ratelimit.keys", rateLimiter, RateLimiter::getKeyCount)
+                    .description("Bucket-uri de limitare ținute în memorie (user x endpoint)")
+                    .register(registry);
+            FunctionCounter.builder("battleboats.ratelimit.untracked", rateLimiter, RateLimiter::getUntracked)
+                    .description("Request-uri lăsate nelimitate pentru că s-a atins max-keys")
+                    .register(registry);
+
+            FunctionCounter.builder("battleboats.bot.moves", bots, BotOpponent::getMoves).register(registry);
+            FunctionCounter.builder("battleboats.bot.budget.exceeded", bots, BotOpponent::getBudgetExceeded)
+                    .description("Mutări ale botului care și-au depășit bugetul de calcul")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder storageMeters(StatsWriteBehind statsWriteBehind, MatchHistoryService history,
+                                     SkinsCache skinsCache, StatsCache statsCache, LeaderboardIndex leaderboard) {
+        return registry -> {
+            Gauge.builder("battleboats.stats.pending", statsWriteBehind, StatsWriteBehind::getPendingCount)
+                    .description("Delte de statistici care așteaptă flush-ul în DB")
+                    .register(registry);
+            Gauge.builder("battleboats.history.pending", history, MatchHistoryService::getPendingCount)
+                    .description("Meciuri terminate care așteaptă insert-ul în match_history")
+                    .register(registry);
+            FunctionCounter.builder("battleboats.history.dropped", history, MatchHistoryService::getDropped)
+                    .description("Meciuri pierdute din istoric pentru că coada era plină")
+                    .register(registry);
+            Gauge.builder("battleboats.skins.cache.size", skinsCache, SkinsCache::size).register(registry);
+            FunctionCounter.builder("battleboats.skins.cache.requests", skinsCache, SkinsCache::getHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("battleboats.skins.cache.requests", skinsCache, SkinsCache::getMisses)
+                    .tag("result", "miss").register(registry);
+            Gauge.builder("battleboats.stats.cache.size", statsCache, StatsCache::size).register(registry);
+            FunctionCounter.builder("battleboats.stats.cache.requests", statsCache, StatsCache::getHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("battleboats.stats.cache.requests", statsCache, StatsCache::getMisses)
+                    .tag("result", "miss").register(registry);
+            Gauge.builder("battleboats.leaderboard.size", leaderboard, LeaderboardIndex::size).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder authMeters(PasswordHasher passwordHasher) {
+        return registry -> {
+            Gauge.builder("battleboats.auth.hash.queued", passwordHasher, PasswordHasher::getQueued)
+                    .description("Verificări BCrypt care așteaptă un thread liber")
+                    .register(registry);
+            Gauge.builder("battleboats.auth.hash.active", passwordHasher, PasswordHasher::getActive).register(registry);
+            FunctionCounter.builder("battleboats.auth.hash.rejected", passwordHasher, PasswordHasher::getRejected)
+                    .description("Register/login respinse cu 503 pentru că pool-ul de hash era plin")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder replayMeters(MatchRecorder recorder) {
+        return registry -> {
+            Gauge.builder("battleboats.replay.queued", recorder, MatchRecorder::getQueued)
+                    .description("Evenimente de replay care așteaptă thread-ul de scriere")
+                    .register(registry);
+            FunctionCounter.builder("battleboats.replay.matches", recorder, MatchRecorder::getRecorded).register(registry);
+            FunctionCounter.builder("battleboats.replay.dropped", recorder, MatchRecorder::getDropped)
+                    .description("Evenimente pierdute pentru că coada era plină")
+                    .register(registry);
+        };
+    }
+
+    private static long countByStatus(GameRegistry games, String status) {
+        long n = 0;
+        for (Game game : games.all()) {
+            if (status.equals(game.getStatus())) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.battleboats.config;
+
+import com.example.battleboats.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplică {@link RateLimiter} pe un endpoint de joc: peste limită răspunde 429 cu Retry-After (secunde).
+ *
+ * O instanță per endpoint (vezi WebConfig), deci nu căutăm endpoint-ul după URL la fiecare request.
+ * Rulează după {@link AuthInterceptor}, iar cheia e userId-ul din token; pe /status/poll, care nu
+ * cere token, cheia e adresa clientului.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter limiter;
+    private final RateLimiter.Endpoint endpoint;
+
+    public RateLimitInterceptor(RateLimiter limiter, RateLimiter.Endpoint endpoint) {
+        this.limiter = limiter;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) return true; // preflight CORS
+
+        Object userId = request.getAttribute(AuthInterceptor.USER_ID);
+        String key = userId != null ? (String) userId : request.getRemoteAddr();
+
+        long waitNanos = limiter.tryAcquire(endpoint, key);
+        if (waitNanos == 0) return true;
+
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        return AuthInterceptor.reject(response, HttpStatus.TOO_MANY_REQUESTS.value(), "Prea multe cereri! Mai încearcă peste puțin timp.");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.battleboats.config;
+
+import com.example.battleboats.service.StaticAssets;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servește fișierele statice din memorie ({@link StaticAssets}), în lanțul ResourceHttpRequestHandler-ului.
+ *
+ * Handler-ul face restul: Content-Type, ETag / 304 (etag = hash-ul conținutului, vezi WebConfig)
+ * și request-urile Range (sunetele din battle.html). Aici alegem doar varianta și header-ele:
+ * la URL-ul cu hash conținutul nu se mai schimbă, deci e "immutable" un an; la numele simplu
+ * (paginile HTML, căile vechi) browserul revalidează de fiecare dată cu If-None-Match.
+ * Ce nu e în memorie (de ex. o imagine pusă în ./img după pornire) merge mai departe în lanț, de pe disc.
+ */
+public class StaticAssetResolver implements ResourceResolver {
+
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+    private final StaticAssets assets;
+    private final String prefix;
+
+    // prefix = ce taie mapping-ul din cale ("img/" pentru /img/**)
+    public StaticAssetResolver(StaticAssets assets, String prefix) {
+        this.assets = assets;
+        this.prefix = prefix;
+    }
+
+    @Override
+    @Nullable
+    public Resource resolveResource(@Nullable HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        String path = prefix + requestPath;
+        StaticAssets.Asset asset = assets.find(path);
+        if (asset == null) return chain.resolveResource(request, requestPath, locations);
+
+        boolean gzip = asset.gzip() != null && request != null && acceptsGzip(request);
+        return new AssetResource(asset, gzip, assets.isVersioned(asset, path));
+    }
+
+    @Override
+    @Nullable
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        StaticAssets.Asset asset = assets.find(prefix + resourcePath);
+        if (asset == null) return chain.resolveUrlPath(resourcePath, locations);
+        return asset.versionedPath().substring(prefix.length());
+    }
+
+    // Etag-ul folosit de handler: diferit pentru varianta gzip, fiindcă are alți octeți
+    static String etag(Resource resource) {
+        return resource instanceof AssetResource r ? (r.gzip ? r.asset.hash() + "-gz" : r.asset.hash()) : null;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept != null && accept.contains("gzip");
+    }
+
+    private static final class AssetResource extends ByteArrayResource implements HttpResource {
+
+        private final StaticAssets.Asset asset;
+        private final boolean gzip;
+        private final boolean versioned;
+
+        AssetResource(StaticAssets.Asset asset, boolean gzip, boolean versioned) {
+            super(gzip ? asset.gzip() : asset.body(), asset.path());
+            this.asset = asset;
+            this.gzip = gzip;
+            this.versioned = versioned;
+        }
+
+        // după nume alege handler-ul Content-Type-ul (style.css => text/css), nu după varianta gzip
+        @Override
+        public String getFilename() {
+            return asset.path().substring(asset.path().lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.CACHE_CONTROL, versioned ? IMMUTABLE : REVALIDATE);
+            if (asset.gzip() != null) headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return headers;
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.battleboats.config;
 
+import com.example.battleboats.service.RateLimiter;
+import com.example.battleboats.service.StaticAssets;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -14,6 +19,18 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private AuthInterceptor authInterceptor;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private StaticAssets staticAssets;
+
+    @Value("${battleboats.ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
     @Bean
     public CorsFilter corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -34,10 +51,44 @@ public class WebConfig implements WebMvcConfigurer {
         return new CorsFilter(source);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Acțiunile de joc și /status (arată navele jucătorului) cer tokenul de sesiune;
+        // /status/poll trimite doar delte cu lovituri, pe care le văd ambii jucători.
+        // Replay-urile conțin navele ambilor jucători, deci le cer și ele; istoricul e al userului din token.
+        registry.addInterceptor(authInterceptor)
+                .addPathPatterns("/api/game/join", "/api/game/join/cancel", "/api/game/fire", "/api/game/leave", "/api/game/status",
+                        "/api/replays/**", "/api/history");
+
+        // Limitarea per user vine după autentificare (cheia e userId-ul din token)
+        if (rateLimitEnabled) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter, RateLimiter.Endpoint.JOIN))
+                    .addPathPatterns("/api/game/join");
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter, RateLimiter.Endpoint.FIRE))
+                    .addPathPatterns("/api/game/fire");
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter, RateLimiter.Endpoint.STATUS))
+                    .addPathPatterns("/api/game/status");
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter, RateLimiter.Endpoint.POLL))
+                    .addPathPatterns("/api/game/status/poll");
+        }
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serveste imaginile din folderul de la radacina proiectului: <repo>/img
+        // Frontend-ul se servește din memorie, cu URL-uri cu hash și gzip (StaticAssets / StaticAssetResolver);
+        // de aceea spring.web.resources.add-mappings=false. ETag = hash-ul conținutului, nu data fișierului.
+        // Imaginile din folderul de lucru (./img) au prioritate față de cele din jar
         registry.addResourceHandler("/img/**")
-                .addResourceLocations("file:./img/");
+                .addResourceLocations("file:./img/", "classpath:/static/img/")
+                .setUseLastModified(false)
+                .setEtagGenerator(StaticAssetResolver::etag)
+                .resourceChain(false)
+                .addResolver(new StaticAssetResolver(staticAssets, "img/"));
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .setUseLastModified(false)
+                .setEtagGenerator(StaticAssetResolver::etag)
+                .resourceChain(false)
+                .addResolver(new StaticAssetResolver(staticAssets, ""));
     }
 }
\ No newline at end of file
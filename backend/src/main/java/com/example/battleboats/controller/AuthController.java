@@ -1,12 +1,18 @@
 package com.example.battleboats.controller;
 
 import com.example.battleboats.model.User;
+import com.example.battleboats.service.AuthTokens;
+import com.example.battleboats.service.PasswordHasher;
 import com.example.battleboats.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth") // Toate linkurile vor începe cu /api/auth/...
@@ -16,31 +22,53 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthTokens authTokens;
+
+    // register/login întorc un CompletableFuture: thread-ul servlet e eliberat cât timp rulează BCrypt
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, String> payload) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody Map<String, String> payload) {
         try {
             // Extragem datele trimise din HTML (JSON)
             String username = payload.get("username");
             String password = payload.get("password");
 
-            User registeredUser = userService.registerUser(username, password);
-            return ResponseEntity.ok("User înregistrat cu succes: " + registeredUser.getId());
+            return userService.registerUser(username, password).handle((registeredUser, error) -> {
+                if (error != null) return failure(error);
+                return ResponseEntity.ok("User înregistrat cu succes: " + registeredUser.getId());
+            });
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
         }
     }
 
+    // La succes primim și tokenul de sesiune, trimis apoi ca "Authorization: Bearer ..." la /api/game/*
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> payload) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> payload) {
         try {
             String username = payload.get("username");
             String password = payload.get("password");
 
-            User user = userService.loginUser(username, password);
-            return ResponseEntity.ok("Login reușit! ID: " + user.getId());
+            return userService.loginUser(username, password).handle((user, error) -> {
+                if (error != null) return failure(error);
+                return ResponseEntity.ok(Map.of(
+                        "message", "Login reușit! ID: " + user.getId(),
+                        "userId", String.valueOf(user.getId()),
+                        "username", user.getUsername(),
+                        "token", authTokens.issue(user.getId())));
+            });
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+    }
+
+    // Pool-ul de hash plin => 503 (clientul reîncearcă), orice altceva => 400 cu mesajul erorii
+    private static ResponseEntity<?> failure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PasswordHasher.BusyException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(cause.getMessage());
         }
+        return ResponseEntity.badRequest().body(cause.getMessage());
     }
 
     @GetMapping("/user/{username}")
@@ -1,231 +1,216 @@
 package com.example.battleboats.controller;
 
+import com.example.battleboats.config.AuthInterceptor;
 import com.example.battleboats.model.Game;
-import com.example.battleboats.service.UserService;
+import com.example.battleboats.service.BinaryWire;
+import com.example.battleboats.service.BotOpponent;
+import com.example.battleboats.service.GameJournal;
+import com.example.battleboats.service.GameMetrics;
+import com.example.battleboats.service.GameRegistry;
+import com.example.battleboats.service.GameService;
+import com.example.battleboats.service.GameUpdateNotifier;
+import com.example.battleboats.service.GameViews;
+import com.example.battleboats.service.MatchRecorder;
+import com.example.battleboats.service.MatchmakingService;
+import com.example.battleboats.service.PlacementValidator;
+import com.example.battleboats.service.RankedMatchmaking;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @RestController
 @RequestMapping("/api/game")
 public class GameController {
 
-    private static final int GRID_SIZE = 10;
+    @Autowired
+    private GameRegistry games;
 
-    // Memorie temporară pentru jocuri (cheie = ID joc)
-    private static final Map<String, Game> games = new ConcurrentHashMap<>();
+    @Autowired
+    private MatchmakingService matchmaking;
 
-    // ID-ul jocului care așteaptă un al doilea jucător
-    private static String waitingGameId = null;
+    @Autowired
+    private RankedMatchmaking ranked;
 
     @Autowired
-    private UserService userService;
-
-    private Set<Integer> calculateOccupiedCells(List<ShipController.ShipPlacement> ships) {
-        Set<Integer> occupied = new HashSet<>();
-        if (ships == null) return occupied;
-
-        for (ShipController.ShipPlacement p : ships) {
-            if (p == null) continue;
-
-            int length;
-            if (p.shipId == null) {
-                length = 1;
-            } else {
-                long sid = p.shipId;
-                if (sid >= 1 && sid <= 4) length = 1;
-                else if (sid >= 5 && sid <= 7) length = 2;
-                else if (sid >= 8 && sid <= 9) length = 3;
-                else length = 4;
-            }
+    private GameService gameService;
 
-            int start = p.startCellIndex;
-
-            // Validări simple: start în bounds
-            if (start < 0 || start >= GRID_SIZE * GRID_SIZE) continue;
-
-            // Validare: nava orizontală să nu treacă pe rândul următor
-            if (p.isHorizontal) {
-                int startRow = start / GRID_SIZE;
-                int endIndex = start + (length - 1);
-                if (endIndex >= GRID_SIZE * GRID_SIZE) continue;
-                int endRow = endIndex / GRID_SIZE;
-                if (startRow != endRow) continue;
-            } else {
-                int endIndex = start + (length - 1) * GRID_SIZE;
-                if (endIndex >= GRID_SIZE * GRID_SIZE) continue;
-            }
+    @Autowired
+    private GameMetrics metrics;
 
-            for (int i = 0; i < length; i++) {
-                int idx = p.isHorizontal ? start + i : start + (i * GRID_SIZE);
-                occupied.add(idx);
-            }
-        }
+    @Autowired
+    private GameJournal journal;
 
-        return occupied;
-    }
+    @Autowired
+    private MatchRecorder recorder;
+
+    @Autowired
+    private GameUpdateNotifier updateNotifier;
+
+    @Autowired
+    private PlacementValidator placementValidator;
+
+    @Autowired
+    private BotOpponent bots;
+
+    @Autowired
+    private GameViews views;
 
     // 1. Intră în joc (sau creează unul nou dacă nu există)
+    // La join/fire/leave/status userId vine din tokenul de sesiune (AuthInterceptor), nu din parametrii clientului
     @PostMapping("/join")
-    public synchronized Map<String, String> joinGame(@RequestParam String userId, @RequestBody List<ShipController.ShipPlacement> ships) {
-        Game game;
-
-        // daca avem un waitingGameId dar jocul nu mai e valid (s-a terminat / nu exista), il resetam
-        if (waitingGameId != null) {
-            Game waitingGame = games.get(waitingGameId);
-            if (waitingGame == null || !"WAITING".equals(waitingGame.getStatus()) || waitingGame.getPlayer2Id() != null) {
-                waitingGameId = null;
+    // boardSize > 10 = mod "large battle": jucătorul e împerecheat doar cu cine a ales aceeași mărime
+    public ResponseEntity<Map<String, String>> joinGame(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                                        @RequestParam(defaultValue = "10") int boardSize,
+                                                        @RequestParam(defaultValue = "false") boolean vsBot,
+                                                        @RequestBody List<ShipController.ShipPlacement> ships) {
+        long start = System.nanoTime();
+        try {
+            PlacementValidator.Result placement = placementValidator.validate(ships, boardSize);
+            if (!placement.isValid()) return ResponseEntity.badRequest().body(Map.of("error", placement.error()));
+
+            // vsBot = single-player: jocul pornește imediat, fără coadă
+            if (vsBot) {
+                Game game = bots.startGame(userId, ships, placement.board());
+                return ResponseEntity.ok(Map.of("gameId", game.getId(), "role", MatchmakingService.ROLE_PLAYER1));
             }
-        }
 
-        // Dacă e cineva în așteptare, intră peste el (devii Player 2)
-        if (waitingGameId != null) {
-            game = games.get(waitingGameId);
-            // Evităm să joci singur cu tine însuți
-            if (game.getPlayer1Id().equals(userId)) {
-                return Map.of("gameId", game.getId(), "role", "PLAYER1");
-            }
-            game.setPlayer2Id(userId);
-            game.setPlayer2Ships(ships);
-            game.setPlayer2Occupied(calculateOccupiedCells(ships));
-            game.setStatus("ACTIVE");
-            waitingGameId = null; // Jocul a început!
-        } else {
-            // Nu e nimeni, creează joc nou (ești Player 1)
-            String newGameId = UUID.randomUUID().toString();
-            game = new Game(newGameId, userId);
-            game.setPlayer1Ships(ships);
-            game.setPlayer1Occupied(calculateOccupiedCells(ships));
-            games.put(newGameId, game);
-            waitingGameId = newGameId;
+            MatchmakingService.JoinResult joined = matchmaking.join(userId, ships, placement.board());
+            return ResponseEntity.ok(Map.of("gameId", joined.game().getId(), "role", joined.role()));
+        } finally {
+            metrics.request(GameMetrics.Op.JOIN, start);
         }
-
-        return Map.of("gameId", game.getId(), "role", game.getPlayer1Id().equals(userId) ? "PLAYER1" : "PLAYER2");
-    }
-
-    // 2. Verifică starea (E rândul meu? A intrat adversarul?)
-    @GetMapping("/status")
-    public Game getGameStatus(@RequestParam String gameId) {
-        return games.get(gameId);
     }
 
-    // 3. Trage într-o celulă
-    @PostMapping("/fire")
-    public Map<String, Object> fire(@RequestParam String gameId, @RequestParam String userId, @RequestParam int cellIndex) {
-        Game game = games.get(gameId);
-
-        if (game == null) return Map.of("error", "Joc inexistent!");
-        if (!"ACTIVE".equals(game.getStatus())) return Map.of("error", "Joc inactiv!");
-        if (!userId.equals(game.getPlayer1Id()) && !userId.equals(game.getPlayer2Id())) return Map.of("error", "Jucător invalid!");
-
-        // Guard: currentTurn poate fi null in unele cazuri (sau player2 lipseste)
-        if (game.getCurrentTurn() == null) {
-            // daca exista ambii jucatori, resetam la player1; altfel jocul e invalid
-            if (game.getPlayer1Id() != null && game.getPlayer2Id() != null) {
-                game.setCurrentTurn(game.getPlayer1Id());
-            } else {
-                return Map.of("error", "Joc invalid: adversar lipsă sau tură nedefinită.");
+    // 1b. Ranked: adversar cu rating apropiat. Long-poll: gameId/role când s-a găsit pereche, 204 = mai întreabă
+    @PostMapping(value = "/join", params = "ranked=true")
+    public DeferredResult<ResponseEntity<Map<String, String>>> joinRanked(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                                                          @RequestParam(defaultValue = "10") int boardSize,
+                                                                          @RequestBody List<ShipController.ShipPlacement> ships) {
+        long start = System.nanoTime();
+        try {
+            PlacementValidator.Result placement = placementValidator.validate(ships, boardSize);
+            if (!placement.isValid()) {
+                DeferredResult<ResponseEntity<Map<String, String>>> invalid = new DeferredResult<>();
+                invalid.setResult(ResponseEntity.badRequest().body(Map.of("error", placement.error())));
+                return invalid;
             }
+            return ranked.join(userId, ships, placement.board());
+        } finally {
+            metrics.request(GameMetrics.Op.JOIN, start);
         }
+    }
 
-        if (!game.getCurrentTurn().equals(userId)) return Map.of("error", "Nu e rândul tău!");
-        if (cellIndex < 0 || cellIndex >= GRID_SIZE * GRID_SIZE) return Map.of("error", "Celulă invalidă!");
-
-        boolean shooterIsP1 = userId.equals(game.getPlayer1Id());
-
-        // Listele/Set-urile exista dar le tratam defensiv
-        List<Integer> targetShots = shooterIsP1 ? game.getShotsAtPlayer2() : game.getShotsAtPlayer1();
-        List<Integer> targetHits = shooterIsP1 ? game.getHitsAtPlayer2() : game.getHitsAtPlayer1();
-        Set<Integer> targetOccupied = shooterIsP1 ? game.getPlayer2Occupied() : game.getPlayer1Occupied();
+    @PostMapping("/join/cancel")
+    public Map<String, Object> cancelRanked(@RequestAttribute(AuthInterceptor.USER_ID) String userId) {
+        ranked.cancel(userId);
+        return Map.of("ok", true);
+    }
 
-        if (targetShots == null || targetHits == null || targetOccupied == null) {
-            return Map.of("error", "Joc invalid: date lipsă pentru adversar.");
+    // 1c. Flota cerută pe o tablă: ce nave așază jucătorul (și de câte ori) și câte din fiecare lungime
+    @GetMapping("/fleet")
+    public ResponseEntity<Map<String, Object>> fleet(@RequestParam(defaultValue = "10") int boardSize) {
+        if (!placementValidator.isAllowedSize(boardSize)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Dimensiune tablă invalidă!"));
         }
+        return ResponseEntity.ok(Map.of(
+                "boardSize", boardSize,
+                "maxBoardSize", placementValidator.getMaxBoardSize(),
+                "ships", placementValidator.fleet(boardSize),
+                "lengths", placementValidator.fleetLengths(boardSize)));
+    }
 
-        if (targetShots.contains(cellIndex)) return Map.of("error", "Ai mai tras aici!");
-
-        targetShots.add(cellIndex);
-        boolean hit = targetOccupied.contains(cellIndex);
-        if (hit) {
-            targetHits.add(cellIndex);
-        } else {
-            // miss => schimbam tura (doar daca exista adversar)
-            String next = shooterIsP1 ? game.getPlayer2Id() : game.getPlayer1Id();
-            if (next != null) {
-                game.setCurrentTurn(next);
+    // 2. Verifică starea (E rândul meu? A intrat adversarul?)
+    // Fără since: vederea jucătorului din token (PlayerView: navele proprii, nu și ale adversarului).
+    // Cu ?since=<versiune> întoarce doar ce s-a schimbat (GameDelta), sau 304 dacă nimic nou.
+    // Ambele răspunsuri sunt serializate o dată pe versiune (GameViews), nu la fiecare request.
+    // Cu "Accept: application/x-battleboats" primim formatul binar (BinaryWire) în loc de JSON.
+    @GetMapping("/status")
+    public ResponseEntity<?> getGameStatus(@RequestParam String gameId,
+                                           @RequestParam(required = false) Long since,
+                                           @RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        long start = System.nanoTime();
+        try {
+            boolean binary = BinaryWire.accepts(accept);
+            Game game = games.get(gameId);
+            if (game == null) return ResponseEntity.notFound().build();
+
+            if (since == null) {
+                boolean player1 = userId.equals(game.getPlayer1Id());
+                if (!player1 && !userId.equals(game.getPlayer2Id())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Jucător invalid!"));
+                }
+                return GameViews.ok(views.playerView(game, player1, binary), binary);
             }
-        }
 
-        // Win condition: toate celulele ocupate ale tintei au fost lovite
-        boolean win = false;
-        if (!targetOccupied.isEmpty()) {
-            Set<Integer> hitSet = new HashSet<>(targetHits);
-            win = hitSet.containsAll(targetOccupied);
+            if (game.getVersion() <= since) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            return GameViews.ok(views.delta(game, since, binary), binary);
+        } finally {
+            metrics.request(GameMetrics.Op.STATUS, start);
         }
-        if (win) {
-            game.setStatus("FINISHED");
-            game.setWinnerId(userId);
-
-            // stats o singura data
-            if (!game.isScoreAwarded()) {
-                try {
-                    Long winnerDbId = Long.parseLong(userId);
-
-                    if (game.getPlayer1Id() != null) userService.recordGamePlayed(Long.parseLong(game.getPlayer1Id()));
-                    if (game.getPlayer2Id() != null) userService.recordGamePlayed(Long.parseLong(game.getPlayer2Id()));
+    }
 
-                    userService.recordWin(winnerDbId);
+    // 2b. Long-poll: răspunde cu delta doar când versiunea jocului depășește `since` (304 la timeout)
+    @GetMapping("/status/poll")
+    public DeferredResult<ResponseEntity<byte[]>> pollGameStatus(@RequestParam String gameId,
+                                                               @RequestParam(defaultValue = "-1") long since,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return updateNotifier.await(gameId, games.get(gameId), since, BinaryWire.accepts(accept));
+    }
 
-                    game.setScoreAwarded(true);
-                } catch (Exception ignored) {
-                }
+    // 3. Trage într-o celulă
+    // Tragerile reușite pot veni și în formatul binar (Accept), erorile rămân JSON
+    @PostMapping("/fire")
+    public ResponseEntity<?> fire(@RequestParam String gameId, @RequestAttribute(AuthInterceptor.USER_ID) String userId, @RequestParam int cellIndex,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> result = gameService.fire(gameId, userId, cellIndex);
+            bots.afterMove(gameId);
+            if (BinaryWire.accepts(accept) && !result.containsKey("error")) {
+                return GameViews.ok(BinaryWire.encodeFire(result), true);
             }
+            return ResponseEntity.ok(result);
+        } finally {
+            metrics.request(GameMetrics.Op.FIRE, start);
         }
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", win ? "GAME_OVER" : "SHOT_FIRED");
-        response.put("index", cellIndex);
-        response.put("hit", hit);
-        response.put("nextTurn", game.getCurrentTurn());
-        response.put("gameStatus", game.getStatus());
-        response.put("winnerId", game.getWinnerId()); // poate fi null pana la final
-        return response;
     }
 
     @PostMapping("/leave")
-    public synchronized Map<String, Object> leave(@RequestParam String gameId, @RequestParam String userId) {
-        Game game = games.get(gameId);
-        if (game == null) {
-            if (Objects.equals(waitingGameId, gameId)) waitingGameId = null;
-            return Map.of("ok", true, "message", "Game already removed");
-        }
+    public ResponseEntity<?> leave(@RequestParam String gameId, @RequestAttribute(AuthInterceptor.USER_ID) String userId) {
+        long start = System.nanoTime();
+        try {
+            Game game = games.get(gameId);
+            if (game == null) {
+                return ResponseEntity.ok(Map.of("ok", true, "message", "Game already removed"));
+            }
 
-        // daca jocul era in asteptare, eliberam coada
-        if (Objects.equals(waitingGameId, gameId)) {
-            waitingGameId = null;
-        }
+            // doar jucatorii lui pot sterge jocul; verificam sub monitor, ca la fire
+            synchronized (game) {
+                if (!userId.equals(game.getPlayer1Id()) && !userId.equals(game.getPlayer2Id())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Jucător invalid!"));
+                }
+                if (games.remove(gameId) == null) {
+                    return ResponseEntity.ok(Map.of("ok", true, "message", "Game already removed"));
+                }
+            }
 
-        // stergem jocul complet (simplu pentru Play Again)
-        games.remove(gameId);
+            // daca jocul era in asteptare, eliberam coada
+            matchmaking.cancel(userId, gameId);
 
-        return Map.of("ok", true, "message", "Game removed", "removedGameId", gameId, "userId", userId);
-    }
+            // stergem jocul complet (simplu pentru Play Again)
+            journal.removed(gameId);
+            recorder.removed(game);
+            updateNotifier.publish(gameId, null);
 
-    @GetMapping("/debug")
-    public Map<String, Object> debug() {
-        Map<String, Object> out = new HashMap<>();
-        out.put("waitingGameId", waitingGameId);
-        out.put("gamesCount", games.size());
-        if (waitingGameId != null) {
-            Game g = games.get(waitingGameId);
-            if (g != null) {
-                out.put("waitingStatus", g.getStatus());
-                out.put("waitingPlayer1", g.getPlayer1Id());
-                out.put("waitingPlayer2", g.getPlayer2Id());
-            }
+            return ResponseEntity.ok(Map.of("ok", true, "message", "Game removed", "removedGameId", gameId, "userId", userId));
+        } finally {
+            metrics.request(GameMetrics.Op.LEAVE, start);
         }
-        return out;
     }
-}
\ No newline at end of file
+}
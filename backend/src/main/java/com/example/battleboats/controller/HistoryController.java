@@ -0,0 +1,24 @@
+package com.example.battleboats.controller;
+
+import com.example.battleboats.config.AuthInterceptor;
+import com.example.battleboats.service.MatchHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private MatchHistoryService history;
+
+    // Meciurile mele, cele mai noi primele. Pagina următoare: ?before=<nextBefore din pagina curentă>
+    @GetMapping
+    public MatchHistoryService.Page getHistory(@RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                               @RequestParam(required = false) Long before,
+                                               @RequestParam(defaultValue = "20") int limit) {
+        return history.page(Long.parseLong(userId), before, Math.min(Math.max(limit, 1), MAX_LIMIT));
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.battleboats.controller;
 
 import com.example.battleboats.model.LeaderboardEntry;
-import com.example.battleboats.reprository.UserRepository;
+import com.example.battleboats.service.LeaderboardIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,13 +13,32 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class LeaderboardController {
 
+    private static final int MAX_LIMIT = 100;
+
+    // Clasamentul vine din indexul din memorie, nu din MySQL
     @Autowired
-    private UserRepository userRepository;
+    private LeaderboardIndex leaderboardIndex;
 
+    // Implicit primii 10 (ca inainte); ?offset=&limit= pentru paginare
     @GetMapping
-    public List<LeaderboardEntry> getLeaderboard() {
-        return userRepository.findTop10ByOrderByWinsDescGamesPlayedDescUsernameAsc().stream()
-                .map(u -> new LeaderboardEntry(u.getUsername(), u.getGamesPlayed(), u.getWins()))
+    public List<LeaderboardEntry> getLeaderboard(@RequestParam(defaultValue = "0") int offset,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        return leaderboardIndex.page(offset, Math.min(Math.max(limit, 0), MAX_LIMIT)).stream()
+                .map(LeaderboardIndex.Ranked::entry)
                 .toList();
     }
+
+    // Locul unui user in clasament (1-based)
+    @GetMapping("/rank/{username}")
+    public ResponseEntity<LeaderboardIndex.Ranked> getRank(@PathVariable String username) {
+        LeaderboardIndex.Ranked ranked = leaderboardIndex.rankOf(username);
+        return ranked == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(ranked);
+    }
+
+    // Jucatorii din jurul unui user: `radius` deasupra si dedesubt
+    @GetMapping("/around/{username}")
+    public List<LeaderboardIndex.Ranked> getAround(@PathVariable String username,
+                                                   @RequestParam(defaultValue = "5") int radius) {
+        return leaderboardIndex.around(username, Math.min(Math.max(radius, 0), MAX_LIMIT / 2));
+    }
 }
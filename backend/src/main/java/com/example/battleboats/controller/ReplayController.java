@@ -0,0 +1,119 @@
+package com.example.battleboats.controller;
+
+import com.example.battleboats.config.AuthInterceptor;
+import com.example.battleboats.service.MatchRecorder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Replay-urile meciurilor, servite direct din fișierele scrise de {@link MatchRecorder}.
+ *
+ * Nu parsăm nimic la cerere: fiecare meci e un interval de bytes dintr-un fișier, pe care îl dăm
+ * lui Tomcat prin atributele de sendfile, iar kernel-ul copiază din page cache direct în socket.
+ * Dacă conectorul nu suportă sendfile, copiem cu FileChannel.transferTo în stream-ul răspunsului,
+ * dintr-un FileChannel deschis înainte să răspundem (rămâne valid și dacă retenția șterge fișierul).
+ */
+@RestController
+@RequestMapping("/api/replays")
+public class ReplayController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Atributele prin care Tomcat (NIO) trimite un fișier cu sendfile după ce controller-ul termină
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private MatchRecorder recorder;
+
+    // Exportul în bloc dă meciurile tuturor jucătorilor, deci e oprit implicit
+    @Value("${battleboats.replay.export-enabled:false}")
+    private boolean exportEnabled;
+
+    // Un meci (o linie JSON), doar pentru cei doi jucători
+    @GetMapping("/{gameId}")
+    public ResponseEntity<?> replay(@PathVariable String gameId,
+                                    @RequestAttribute(AuthInterceptor.USER_ID) String userId,
+                                    HttpServletRequest request) {
+        MatchRecorder.Location location = recorder.find(gameId);
+        if (location == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Replay inexistent!"));
+        }
+        if (!userId.equals(location.player1Id()) && !userId.equals(location.player2Id())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Jucător invalid!"));
+        }
+        return send(request, recorder.path(location.file()), location.offset(), location.length(), MediaType.APPLICATION_JSON);
+    }
+
+    // Fișierele de export (un meci pe linie), cu câți bytes sunt scriși complet în fiecare
+    @GetMapping("/files")
+    public ResponseEntity<?> files() {
+        if (!exportEnabled) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(recorder.listFiles());
+    }
+
+    // Un fișier întreg ca NDJSON; pentru fișierul curent, doar liniile deja scrise complet
+    @GetMapping("/files/{name}")
+    public ResponseEntity<?> file(@PathVariable String name, HttpServletRequest request) {
+        if (!exportEnabled) return ResponseEntity.notFound().build();
+        Integer file = recorder.fileByName(name);
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Fișier inexistent!"));
+        }
+        return send(request, recorder.path(file), 0, recorder.committedBytes(file), NDJSON);
+    }
+
+    private static ResponseEntity<?> send(HttpServletRequest request, Path path, long start, long length, MediaType type) {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return ok(length, type).build();
+        }
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // scos din retenție chiar acum
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Replay inexistent!"));
+        }
+        StreamingResponseBody body = out -> {
+            try (channel) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = start;
+                long end = start + length;
+                while (position < end) {
+                    long sent = channel.transferTo(position, end - position, target);
+                    if (sent <= 0) break; // fișierul a fost scurtat (nu ar trebui să se întâmple)
+                    position += sent;
+                }
+            }
+        };
+        return ok(length, type).body(body);
+    }
+
+    private static ResponseEntity.BodyBuilder ok(long length, MediaType type) {
+        return ResponseEntity.ok()
+                .contentType(type)
+                .contentLength(length)
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+    }
+}
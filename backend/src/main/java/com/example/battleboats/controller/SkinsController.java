@@ -4,6 +4,7 @@ import com.example.battleboats.model.User;
 import com.example.battleboats.model.UserSkins;
 import com.example.battleboats.reprository.UserRepository;
 import com.example.battleboats.reprository.UserSkinsRepository;
+import com.example.battleboats.service.SkinsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,7 +12,6 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -25,31 +25,28 @@ public class SkinsController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SkinsCache skinsCache;
+
     private static final Logger logger = LoggerFactory.getLogger(SkinsController.class);
 
-    // Endpoint pentru a obține skin-urile unui user
+    // Endpoint pentru a obține skin-urile unui user (citire pură: din cache, altfel din DB, fără scrieri)
     @GetMapping("/{userId}")
     public ResponseEntity<Map<Integer, String>> getUserSkins(@PathVariable Long userId) {
-        String username = userRepository.findById(userId).map(User::getUsername).orElse("unknown");
-
-        UserSkins skinsRow = userSkinsRepository.findByUserId(userId)
-                .orElseGet(() -> userSkinsRepository.save(new UserSkins(userId, username)));
-
-        // asiguram username corect (daca s-a schimbat)
-        if (skinsRow.getUsername() == null || !skinsRow.getUsername().equals(username)) {
-            skinsRow.setUsername(username);
-            skinsRow = userSkinsRepository.save(skinsRow);
+        Map<Integer, String> skinMap = skinsCache.get(userId);
+        if (skinMap == null) {
+            // userul fara rand in user_skins primeste default-urile (randul se creeaza la primul update)
+            UserSkins skinsRow = userSkinsRepository.findByUserId(userId).orElseGet(UserSkins::new);
+            skinMap = skinsCache.putIfAbsent(userId, toSkinMap(skinsRow));
         }
-
-        Map<Integer, String> skinMap = new HashMap<>();
-        skinMap.put(1, skinsRow.getShip1Skin());
-        skinMap.put(2, skinsRow.getShip2Skin());
-        skinMap.put(3, skinsRow.getShip3Skin());
-        skinMap.put(4, skinsRow.getShip4Skin());
-
         return ResponseEntity.ok(skinMap);
     }
 
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        return Map.of("hits", skinsCache.getHits(), "misses", skinsCache.getMisses(), "size", skinsCache.size());
+    }
+
     // Endpoint pentru a actualiza un skin
     @PutMapping("/{userId}/{shipType}")
     public ResponseEntity<String> updateSkin(
@@ -73,6 +70,7 @@ public class SkinsController {
         UserSkins skinsRow = userSkinsRepository.findByUserId(userId)
                 .orElseGet(() -> new UserSkins(userId, username));
 
+        // asiguram username corect (daca s-a schimbat) - doar aici, GET-ul nu mai scrie
         skinsRow.setUsername(username);
 
         switch (shipType) {
@@ -82,7 +80,16 @@ public class SkinsController {
             case 4 -> skinsRow.setShip4Skin(newSkinPath);
         }
 
-        userSkinsRepository.save(skinsRow);
+        UserSkins saved = userSkinsRepository.save(skinsRow);
+        skinsCache.put(userId, toSkinMap(saved));
         return ResponseEntity.ok("Skin actualizat!");
     }
+
+    private static Map<Integer, String> toSkinMap(UserSkins row) {
+        return Map.of(
+                1, row.getShip1Skin(),
+                2, row.getShip2Skin(),
+                3, row.getShip3Skin(),
+                4, row.getShip4Skin());
+    }
 }
@@ -1,8 +1,7 @@
 package com.example.battleboats.controller;
 
-import com.example.battleboats.model.User;
 import com.example.battleboats.model.UserStats;
-import com.example.battleboats.reprository.UserRepository;
+import com.example.battleboats.service.StatsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,15 +10,16 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class StatsController {
 
+    // Statisticile vin din cache-ul versionat; DB-ul e citit doar după ce s-au schimbat
     @Autowired
-    private UserRepository userRepository;
+    private StatsCache statsCache;
 
     @GetMapping("/{userId}")
     public UserStats getStats(@PathVariable Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User negăsit!"));
+        UserStats stats = statsCache.get(userId);
+        if (stats == null) throw new RuntimeException("User negăsit!");
 
         // losses pot fi calculate in frontend: gamesPlayed - wins
-        return new UserStats(user.getGamesPlayed(), user.getWins());
+        return stats;
     }
 }
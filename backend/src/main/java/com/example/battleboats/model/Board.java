@@ -0,0 +1,229 @@
+package com.example.battleboats.model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabla unui jucător ca bitboard: size x size celule împachetate în cuvinte `long`
+ * (celula c e bitul c & 63 din cuvântul c >>> 6). Implicit 10x10 (2 cuvinte), până la 64x64 (64 de cuvinte).
+ *
+ * Păstrăm trei măști: celulele ocupate de nave, celulele în care s-a tras și hit-urile, plus
+ * numărul de biți din fiecare. Verificările la tragere (am mai tras aici? e hit? s-a terminat?)
+ * sunt O(1) indiferent de mărime, fără alocări și fără Integer boxing. Memoria unei table e
+ * fixă: 3 * ceil(size² / 64) cuvinte (48 de bytes la 10x10, 1,5 KB la 64x64).
+ */
+public class Board {
+
+    public static final int GRID_SIZE = 10;
+    public static final int CELLS = GRID_SIZE * GRID_SIZE;
+
+    public static final int MIN_SIZE = 10;
+    public static final int MAX_SIZE = 64;
+
+    public static final int MISS = 0;
+    public static final int HIT = 1;
+    public static final int ALREADY_SHOT = 2;
+
+    private final int size;
+    private final int cells;
+    private final long[] occupied;
+    private final long[] shots;
+    private final long[] hits;
+    private int occupiedCount, shotCount, hitCount;
+
+    public Board() {
+        this(GRID_SIZE);
+    }
+
+    public Board(int size) {
+        if (!isValidSize(size)) throw new IllegalArgumentException("Dimensiune tablă invalidă: " + size);
+        this.size = size;
+        this.cells = size * size;
+        int words = (cells + 63) >>> 6;
+        this.occupied = new long[words];
+        this.shots = new long[words];
+        this.hits = new long[words];
+    }
+
+    public static boolean isValidSize(int size) {
+        return size >= MIN_SIZE && size <= MAX_SIZE;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public boolean contains(int cell) {
+        return cell >= 0 && cell < cells;
+    }
+
+    public void occupy(int cell) {
+        long bit = 1L << cell;
+        if ((occupied[cell >>> 6] & bit) == 0) occupiedCount++;
+        occupied[cell >>> 6] |= bit;
+    }
+
+    public boolean isOccupied(int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public boolean isShot(int cell) {
+        return (shots[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    // Copii ale măștilor de lovituri/hit-uri: tot ce are voie să vadă un adversar (ex. botul)
+    public long[] copyShots() {
+        return shots.clone();
+    }
+
+    public long[] copyHits() {
+        return hits.clone();
+    }
+
+    public boolean hasShips() {
+        return occupiedCount != 0;
+    }
+
+    // --- Dreptunghiuri (nave): un test/OR pe cuvânt pentru fiecare rând ---
+
+    // Există vreo celulă ocupată în dreptunghiul dat? (tăiat la marginile tablei)
+    public boolean anyOccupied(int row, int col, int height, int width) {
+        int r0 = Math.max(row, 0), r1 = Math.min(row + height, size);
+        int c0 = Math.max(col, 0), c1 = Math.min(col + width, size);
+        if (c1 <= c0) return false;
+        for (int r = r0; r < r1; r++) {
+            int from = r * size + c0, n = c1 - c0;
+            while (n > 0) {
+                int off = from & 63, take = Math.min(n, 64 - off);
+                if ((occupied[from >>> 6] & (runMask(take) << off)) != 0) return true;
+                from += take;
+                n -= take;
+            }
+        }
+        return false;
+    }
+
+    // Ocupă dreptunghiul dat (presupus în interiorul tablei)
+    public void occupyRect(int row, int col, int height, int width) {
+        for (int r = row; r < row + height; r++) {
+            int from = r * size + col, n = width;
+            while (n > 0) {
+                int off = from & 63, take = Math.min(n, 64 - off);
+                long mask = runMask(take) << off;
+                occupiedCount += Long.bitCount(mask & ~occupied[from >>> 6]);
+                occupied[from >>> 6] |= mask;
+                from += take;
+                n -= take;
+            }
+        }
+    }
+
+    private static long runMask(int n) {
+        return n == 64 ? -1L : (1L << n) - 1;
+    }
+
+    /**
+     * Înregistrează o lovitură în celula dată (presupusă validă).
+     * Întoarce {@link #HIT}, {@link #MISS} sau {@link #ALREADY_SHOT}.
+     */
+    public int fire(int cell) {
+        int w = cell >>> 6;
+        long bit = 1L << cell;
+        if ((shots[w] & bit) != 0) return ALREADY_SHOT;
+        shots[w] |= bit;
+        shotCount++;
+        if ((occupied[w] & bit) == 0) return MISS;
+        hits[w] |= bit;
+        hitCount++;
+        return HIT;
+    }
+
+    // Toate celulele ocupate au fost lovite (hits e submulțime din occupied, deci ajunge să comparăm numărul)
+    public boolean allSunk() {
+        return occupiedCount != 0 && hitCount == occupiedCount;
+    }
+
+    public int shotCount() {
+        return shotCount;
+    }
+
+    public int hitCount() {
+        return hitCount;
+    }
+
+    // --- Serializare binară (jurnal / snapshot): [size:short][cuvinte] ---
+
+    public void writeOccupied(ByteBuffer buf) {
+        buf.putShort((short) size);
+        for (long w : occupied) buf.putLong(w);
+    }
+
+    public void writeTo(ByteBuffer buf) {
+        writeOccupied(buf);
+        for (long w : shots) buf.putLong(w);
+        for (long w : hits) buf.putLong(w);
+    }
+
+    // Câți bytes scrie writeTo pentru o tablă de mărimea dată
+    public static int serializedSize(int size) {
+        return 2 + 3 * 8 * ((size * size + 63) >>> 6);
+    }
+
+    public static Board readOccupied(ByteBuffer buf) {
+        Board board = new Board(buf.getShort());
+        readWords(buf, board.occupied);
+        board.recount();
+        return board;
+    }
+
+    public static Board readFrom(ByteBuffer buf) {
+        Board board = readOccupied(buf);
+        readWords(buf, board.shots);
+        readWords(buf, board.hits);
+        board.recount();
+        return board;
+    }
+
+    private static void readWords(ByteBuffer buf, long[] words) {
+        for (int i = 0; i < words.length; i++) words[i] = buf.getLong();
+    }
+
+    private void recount() {
+        occupiedCount = bitCount(occupied);
+        shotCount = bitCount(shots);
+        hitCount = bitCount(hits);
+    }
+
+    private static int bitCount(long[] words) {
+        int n = 0;
+        for (long w : words) n += Long.bitCount(w);
+        return n;
+    }
+
+    // --- Conversii în liste de indecși (doar pentru JSON / frontend) ---
+
+    public List<Integer> occupiedCells() {
+        return toList(occupied, occupiedCount);
+    }
+
+    public List<Integer> shotCells() {
+        return toList(shots, shotCount);
+    }
+
+    public List<Integer> hitCells() {
+        return toList(hits, hitCount);
+    }
+
+    private static List<Integer> toList(long[] words, int count) {
+        List<Integer> out = new ArrayList<>(count);
+        for (int i = 0; i < words.length; i++) {
+            for (long w = words[i]; w != 0; w &= w - 1) out.add((i << 6) + Long.numberOfTrailingZeros(w));
+        }
+        return out;
+    }
+}
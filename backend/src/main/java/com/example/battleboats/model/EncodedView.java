@@ -0,0 +1,12 @@
+package com.example.battleboats.model;
+
+/**
+ * Un răspuns deja serializat (JSON sau binar) pentru o versiune a jocului (vezi GameViews).
+ * since e relevant doar pentru delte; pentru vederile jucătorilor e -1.
+ */
+public record EncodedView(long since, long version, byte[] bytes) {
+
+    public boolean matches(long since, long version) {
+        return this.since == since && this.version == version;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.battleboats.model;
 
 import com.example.battleboats.controller.ShipController;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class Game {
     private String id;
@@ -13,17 +15,9 @@ public class Game {
     private List<ShipController.ShipPlacement> player1Ships = new ArrayList<>();
     private List<ShipController.ShipPlacement> player2Ships = new ArrayList<>();
 
-    // Celulele ocupate de nave (calculate pe server)
-    private Set<Integer> player1Occupied = new HashSet<>();
-    private Set<Integer> player2Occupied = new HashSet<>();
-
-    // Unde a tras fiecare (indecșii celulelor)
-    private List<Integer> shotsAtPlayer1 = new ArrayList<>();
-    private List<Integer> shotsAtPlayer2 = new ArrayList<>();
-
-    // Hit-uri (submulțime din shotsAtPlayerX)
-    private List<Integer> hitsAtPlayer1 = new ArrayList<>();
-    private List<Integer> hitsAtPlayer2 = new ArrayList<>();
+    // Tabla fiecărui jucător: celule ocupate (calculate pe server), lovituri primite și hit-uri
+    private Board player1Board = new Board();
+    private Board player2Board = new Board();
 
     private String currentTurn; // Cine este la rând?
     private String status;      // "WAITING", "ACTIVE", "FINISHED"
@@ -31,6 +25,26 @@ public class Game {
     private String winnerId;
     private boolean scoreAwarded = false;
 
+    // Crește la fiecare schimbare vizibilă pentru clienți (join, tragere, final)
+    private volatile long version = 0;
+
+    // Jurnalul loviturilor, în ordine: fiecare intrare e un long împachetat (vezi recordShot)
+    private long[] moves = new long[32];
+    private int moveCount = 0;
+
+    // Ultima activitate (creare, join, tragere) - folosită pentru expirarea jocurilor abandonate
+    private volatile long lastActivityMillis = System.currentTimeMillis();
+
+    // Când a devenit ACTIVE (pentru istoricul meciurilor); 0 = necunoscut, ex. joc refăcut din jurnal
+    private long startedAtMillis;
+
+    // Numărul următoarei înregistrări din jurnalul de pe disc pentru jocul ăsta (vezi GameJournal),
+    // luat sub monitorul jocului, ca replay-ul să le poată pune în ordine
+    private int journalSeq;
+
+    // Răspunsurile /status deja serializate (vederile celor doi jucători și ultima deltă, JSON și binar), vezi GameViews
+    private final AtomicReferenceArray<EncodedView> encodedViews = new AtomicReferenceArray<>(6);
+
     public Game(String id, String player1Id) {
         this.id = id;
         this.player1Id = player1Id;
@@ -51,17 +65,26 @@ public class Game {
     public List<ShipController.ShipPlacement> getPlayer2Ships() { return player2Ships; }
     public void setPlayer2Ships(List<ShipController.ShipPlacement> ships) { this.player2Ships = ships; }
 
-    public Set<Integer> getPlayer1Occupied() { return player1Occupied; }
-    public void setPlayer1Occupied(Set<Integer> player1Occupied) { this.player1Occupied = player1Occupied; }
+    @JsonIgnore
+    public Board getPlayer1Board() { return player1Board; }
+    public void setPlayer1Board(Board player1Board) { this.player1Board = player1Board; }
+
+    @JsonIgnore
+    public Board getPlayer2Board() { return player2Board; }
+    public void setPlayer2Board(Board player2Board) { this.player2Board = player2Board; }
 
-    public Set<Integer> getPlayer2Occupied() { return player2Occupied; }
-    public void setPlayer2Occupied(Set<Integer> player2Occupied) { this.player2Occupied = player2Occupied; }
+    // Mărimea tablei (latura); ambele table ale unui joc au aceeași mărime
+    public int getBoardSize() { return player1Board.getSize(); }
 
-    public List<Integer> getShotsAtPlayer1() { return shotsAtPlayer1; }
-    public List<Integer> getShotsAtPlayer2() { return shotsAtPlayer2; }
+    // Vederi ca liste de indecși, păstrate pentru JSON-ul citit de battle.html
+    public List<Integer> getPlayer1Occupied() { return player1Board.occupiedCells(); }
+    public List<Integer> getPlayer2Occupied() { return player2Board.occupiedCells(); }
 
-    public List<Integer> getHitsAtPlayer1() { return hitsAtPlayer1; }
-    public List<Integer> getHitsAtPlayer2() { return hitsAtPlayer2; }
+    public List<Integer> getShotsAtPlayer1() { return player1Board.shotCells(); }
+    public List<Integer> getShotsAtPlayer2() { return player2Board.shotCells(); }
+
+    public List<Integer> getHitsAtPlayer1() { return player1Board.hitCells(); }
+    public List<Integer> getHitsAtPlayer2() { return player2Board.hitCells(); }
 
     public String getCurrentTurn() { return currentTurn; }
     public void setCurrentTurn(String currentTurn) { this.currentTurn = currentTurn; }
@@ -72,6 +95,70 @@ public class Game {
     public String getWinnerId() { return winnerId; }
     public void setWinnerId(String winnerId) { this.winnerId = winnerId; }
 
+    public long getVersion() { return version; }
+    public void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+        version++;
+    }
+
+    @JsonIgnore
+    public long getLastActivityMillis() { return lastActivityMillis; }
+
+    @JsonIgnore
+    public long getStartedAtMillis() { return startedAtMillis; }
+    public void setStartedAtMillis(long startedAtMillis) { this.startedAtMillis = startedAtMillis; }
+
+    @JsonIgnore
+    public int getJournalSeq() { return journalSeq; }
+    public void setJournalSeq(int journalSeq) { this.journalSeq = journalSeq; }
+    public int nextJournalSeq() { return journalSeq++; }
+
+    /**
+     * Adaugă o lovitură în jurnal și crește versiunea.
+     * Format: [versiune:32][țintă e player1:1][hit:1][celulă:30].
+     */
+    public void recordShot(boolean atPlayer1, int cell, boolean hit) {
+        long v = version + 1;
+        if (moveCount == moves.length) moves = Arrays.copyOf(moves, moveCount * 2);
+        moves[moveCount++] = (v << 32) | (atPlayer1 ? 1L << 31 : 0) | (hit ? 1L << 30 : 0) | cell;
+        lastActivityMillis = System.currentTimeMillis();
+        version = v;
+    }
+
+    @JsonIgnore
+    public AtomicReferenceArray<EncodedView> getEncodedViews() { return encodedViews; }
+
+    @JsonIgnore
+    public int getMoveCount() { return moveCount; }
+
+    public long getMove(int i) { return moves[i]; }
+
+    public long[] copyMoves() { return Arrays.copyOf(moves, moveCount); }
+
+    // Refacere după restart (snapshot din jurnal): versiunea și jurnalul de lovituri exact ca înainte
+    public void restore(long version, long[] moves, long lastActivityMillis) {
+        this.moves = moves.length == 0 ? new long[32] : moves;
+        this.moveCount = moves.length;
+        this.lastActivityMillis = lastActivityMillis;
+        this.version = version;
+    }
+
+    public static long moveVersion(long move) { return move >>> 32; }
+    public static boolean moveAtPlayer1(long move) { return (move & (1L << 31)) != 0; }
+    public static boolean moveHit(long move) { return (move & (1L << 30)) != 0; }
+    public static int moveCell(long move) { return (int) (move & 0x3FFFFFFFL); }
+
+    // Prima lovitură cu versiune > since (căutare binară, versiunile din jurnal sunt crescătoare)
+    public int firstMoveAfter(long since) {
+        int lo = 0, hi = moveCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (moveVersion(moves[mid]) <= since) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
     public boolean isScoreAwarded() { return scoreAwarded; }
     public void setScoreAwarded(boolean scoreAwarded) { this.scoreAwarded = scoreAwarded; }
 }
\ No newline at end of file
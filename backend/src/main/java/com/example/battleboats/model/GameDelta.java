@@ -0,0 +1,72 @@
+package com.example.battleboats.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ce s-a schimbat într-un joc de la o versiune dată: doar loviturile noi, plus starea curentă
+ * (status, tură, câștigător), care e mică și o trimitem mereu.
+ *
+ * Câmpurile au aceleași nume ca în {@link Game}, deci battle.html le aplică la fel, incremental.
+ */
+public class GameDelta {
+    private final long version;
+    private final int boardSize;
+    private final String status;
+    private final String currentTurn;
+    private final String winnerId;
+    private final String player1Id;
+    private final String player2Id;
+
+    private final List<Integer> shotsAtPlayer1 = new ArrayList<>();
+    private final List<Integer> hitsAtPlayer1 = new ArrayList<>();
+    private final List<Integer> shotsAtPlayer2 = new ArrayList<>();
+    private final List<Integer> hitsAtPlayer2 = new ArrayList<>();
+
+    private GameDelta(Game game) {
+        this.version = game.getVersion();
+        this.boardSize = game.getBoardSize();
+        this.status = game.getStatus();
+        this.currentTurn = game.getCurrentTurn();
+        this.winnerId = game.getWinnerId();
+        this.player1Id = game.getPlayer1Id();
+        this.player2Id = game.getPlayer2Id();
+    }
+
+    // Citim sub monitorul jocului, ca jurnalul să nu crească sub noi în timp ce îl parcurgem
+    public static GameDelta since(Game game, long since) {
+        synchronized (game) {
+            return build(game, since);
+        }
+    }
+
+    private static GameDelta build(Game game, long since) {
+        GameDelta delta = new GameDelta(game);
+        for (int i = game.firstMoveAfter(since); i < game.getMoveCount(); i++) {
+            long move = game.getMove(i);
+            int cell = Game.moveCell(move);
+            boolean hit = Game.moveHit(move);
+            if (Game.moveAtPlayer1(move)) {
+                delta.shotsAtPlayer1.add(cell);
+                if (hit) delta.hitsAtPlayer1.add(cell);
+            } else {
+                delta.shotsAtPlayer2.add(cell);
+                if (hit) delta.hitsAtPlayer2.add(cell);
+            }
+        }
+        return delta;
+    }
+
+    public long getVersion() { return version; }
+    public int getBoardSize() { return boardSize; }
+    public String getStatus() { return status; }
+    public String getCurrentTurn() { return currentTurn; }
+    public String getWinnerId() { return winnerId; }
+    public String getPlayer1Id() { return player1Id; }
+    public String getPlayer2Id() { return player2Id; }
+
+    public List<Integer> getShotsAtPlayer1() { return shotsAtPlayer1; }
+    public List<Integer> getHitsAtPlayer1() { return hitsAtPlayer1; }
+    public List<Integer> getShotsAtPlayer2() { return shotsAtPlayer2; }
+    public List<Integer> getHitsAtPlayer2() { return hitsAtPlayer2; }
+}
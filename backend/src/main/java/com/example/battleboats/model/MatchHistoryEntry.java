@@ -0,0 +1,23 @@
+package com.example.battleboats.model;
+
+import java.time.Instant;
+
+/**
+ * Un meci din istoricul unui jucător, văzut din perspectiva lui (my* = el, opponent* = adversarul).
+ * opponentId e null contra botului; startedAt/durationMs sunt null pentru jocuri refăcute din jurnal.
+ */
+public record MatchHistoryEntry(
+        long id,
+        String gameId,
+        Long opponentId,
+        boolean vsBot,
+        boolean won,
+        int boardSize,
+        int myShots,
+        int myHits,
+        int opponentShots,
+        int opponentHits,
+        Instant startedAt,
+        Instant endedAt,
+        Long durationMs) {
+}
@@ -0,0 +1,30 @@
+package com.example.battleboats.model;
+
+import com.example.battleboats.controller.ShipController;
+
+import java.util.List;
+
+/**
+ * Un meci înregistrat pentru replay (o linie NDJSON în fișierele din battleboats.replay.dir).
+ *
+ * shots = [msDeLaStart, trăgător (1/2), celulă, hit (0/1)] în ordinea din joc; msDeLaStart e -1
+ * când nu știm momentul (ex. meci reluat din jurnal după restart). Navele ca ShipPlacement lipsesc
+ * la meciurile contra botului (pentru bot avem doar celulele ocupate) și după restart.
+ *
+ * gameId, player1Id și player2Id sunt primele câmpuri: indexul le citește fără să parseze toată linia.
+ */
+public record MatchRecord(
+        String gameId,
+        String player1Id,
+        String player2Id,
+        int boardSize,
+        String result,
+        String winnerId,
+        Long startedAt,
+        long endedAt,
+        List<ShipController.ShipPlacement> player1Ships,
+        List<ShipController.ShipPlacement> player2Ships,
+        List<Integer> player1Occupied,
+        List<Integer> player2Occupied,
+        List<long[]> shots) {
+}
@@ -0,0 +1,68 @@
+package com.example.battleboats.model;
+
+import java.util.List;
+
+/**
+ * Starea jocului văzută de unul dintre jucători (/status fără since): tabla proprie completă
+ * (celule ocupate, lovituri primite) și, din tabla adversarului, doar unde am tras și ce am lovit.
+ *
+ * Spre deosebire de {@link Game}, nu conține navele adversarului, deci nu le mai trimitem la client.
+ */
+public class PlayerView {
+    private final long version;
+    private final int boardSize;
+    private final String status;
+    private final String currentTurn;
+    private final String winnerId;
+    private final String player1Id;
+    private final String player2Id;
+    private final String role;
+
+    private final List<Integer> myOccupied;
+    private final List<Integer> shotsAtMe;
+    private final List<Integer> hitsAtMe;
+    private final List<Integer> shotsAtOpponent;
+    private final List<Integer> hitsAtOpponent;
+
+    private PlayerView(Game game, boolean player1) {
+        Board mine = player1 ? game.getPlayer1Board() : game.getPlayer2Board();
+        Board theirs = player1 ? game.getPlayer2Board() : game.getPlayer1Board();
+
+        this.version = game.getVersion();
+        this.boardSize = game.getBoardSize();
+        this.status = game.getStatus();
+        this.currentTurn = game.getCurrentTurn();
+        this.winnerId = game.getWinnerId();
+        this.player1Id = game.getPlayer1Id();
+        this.player2Id = game.getPlayer2Id();
+        this.role = player1 ? "PLAYER1" : "PLAYER2";
+
+        this.myOccupied = mine.occupiedCells();
+        this.shotsAtMe = mine.shotCells();
+        this.hitsAtMe = mine.hitCells();
+        this.shotsAtOpponent = theirs.shotCells();
+        this.hitsAtOpponent = theirs.hitCells();
+    }
+
+    // Ca la GameDelta: citim sub monitorul jocului, ca versiunea să corespundă loviturilor
+    public static PlayerView of(Game game, boolean player1) {
+        synchronized (game) {
+            return new PlayerView(game, player1);
+        }
+    }
+
+    public long getVersion() { return version; }
+    public int getBoardSize() { return boardSize; }
+    public String getStatus() { return status; }
+    public String getCurrentTurn() { return currentTurn; }
+    public String getWinnerId() { return winnerId; }
+    public String getPlayer1Id() { return player1Id; }
+    public String getPlayer2Id() { return player2Id; }
+    public String getRole() { return role; }
+
+    public List<Integer> getMyOccupied() { return myOccupied; }
+    public List<Integer> getShotsAtMe() { return shotsAtMe; }
+    public List<Integer> getHitsAtMe() { return hitsAtMe; }
+    public List<Integer> getShotsAtOpponent() { return shotsAtOpponent; }
+    public List<Integer> getHitsAtOpponent() { return hitsAtOpponent; }
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.*;
 @Table(name = "users")
 public class User {
 
+    public static final int DEFAULT_RATING = 1200;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,6 +22,9 @@ public class User {
 
     private int wins;
 
+    // Elo; folosit de matchmaking-ul ranked
+    private int rating = DEFAULT_RATING;
+
     // --- CONSTRUCTORI ---
     public User() {
     }
@@ -73,4 +78,12 @@ public class User {
     public void setWins(int wins) {
         this.wins = wins;
     }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
 }
\ No newline at end of file
@@ -16,16 +16,16 @@ public class UserSkins {
     @Column(nullable = false)
     private String username; // numele contului (denormalizat)
 
-    @Column(nullable = false)
+    @Column(name = "ship1_skin", nullable = false)
     private String ship1Skin;
 
-    @Column(nullable = false)
+    @Column(name = "ship2_skin", nullable = false)
     private String ship2Skin;
 
-    @Column(nullable = false)
+    @Column(name = "ship3_skin", nullable = false)
     private String ship3Skin;
 
-    @Column(nullable = false)
+    @Column(name = "ship4_skin", nullable = false)
     private String ship4Skin;
 
     public UserSkins() {
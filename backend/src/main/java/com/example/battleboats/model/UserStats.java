@@ -1,16 +1,42 @@
 package com.example.battleboats.model;
 
+/**
+ * Statisticile unui user: cele de bază din `users` plus agregatele din `user_stats`
+ * (medii calculate la construcție, din sume ținute incremental).
+ */
 public class UserStats {
     private long gamesPlayed;
     private long wins;
     private long losses;
     private double winRate;
+    private int rating;
+
+    private long shots;
+    private long hits;
+    private double accuracy;          // % lovituri care au nimerit
+    private Double avgShotsToWin;     // null fără nicio victorie
+    private int currentStreak;
+    private int bestStreak;
+    private Long avgGameMs;           // null dacă nu avem niciun joc cu durată cunoscută
 
     public UserStats(long gamesPlayed, long wins) {
+        this(gamesPlayed, wins, User.DEFAULT_RATING, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public UserStats(long gamesPlayed, long wins, int rating, long shots, long hits, long shotsInWins,
+                     int currentStreak, int bestStreak, long timedGames, long totalDurationMs) {
         this.gamesPlayed = gamesPlayed;
         this.wins = wins;
         this.losses = Math.max(0, gamesPlayed - wins);
         this.winRate = gamesPlayed == 0 ? 0.0 : (wins * 100.0) / gamesPlayed;
+        this.rating = rating;
+        this.shots = shots;
+        this.hits = hits;
+        this.accuracy = shots == 0 ? 0.0 : (hits * 100.0) / shots;
+        this.avgShotsToWin = wins == 0 ? null : (double) shotsInWins / wins;
+        this.currentStreak = currentStreak;
+        this.bestStreak = bestStreak;
+        this.avgGameMs = timedGames == 0 ? null : totalDurationMs / timedGames;
     }
 
     public long getGamesPlayed() {
@@ -28,4 +54,36 @@ public class UserStats {
     public double getWinRate() {
         return winRate;
     }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public long getShots() {
+        return shots;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public Double getAvgShotsToWin() {
+        return avgShotsToWin;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    public Long getAvgGameMs() {
+        return avgGameMs;
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.battleboats.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Token de sesiune semnat, fără stare pe server: "userId.expiră.semnătură", unde semnătura e
+ * HMAC-SHA256 peste "userId.expiră" (base64url).
+ *
+ * Emis la login; după aceea /api/game/* verifică doar semnătura și expirarea (câteva microsecunde,
+ * fără DB și fără BCrypt). Instanța de Mac e per thread, ca să nu o recreăm la fiecare request.
+ *
+ * Fără battleboats.auth.token-secret generăm o cheie la pornire: merge pe un singur nod, dar
+ * tokenurile expiră la restart (clientul se loghează din nou).
+ */
+@Service
+public class AuthTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokens.class);
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final ThreadLocal<Mac> macs;
+
+    public AuthTokens(@Value("${battleboats.auth.token-secret:}") String secret,
+                      @Value("${battleboats.auth.token-ttl-hours:24}") long ttlHours) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            logger.warn("battleboats.auth.token-secret nu e setat: folosim o cheie aleatoare, tokenurile nu supravietuiesc restartului");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlHours * 3600;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(Long userId) {
+        long expires = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String payload = userId + "." + expires;
+        return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload));
+    }
+
+    // userId-ul din token, sau null dacă tokenul e malformat, falsificat sau expirat
+    public String verify(String token) {
+        if (token == null) return null;
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last <= first + 1) return null;
+
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(last + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(token.substring(0, last)), signature)) return null;
+
+        long expires;
+        try {
+            expires = Long.parseLong(token.substring(first + 1, last));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expires < System.currentTimeMillis() / 1000) return null;
+        return token.substring(0, first);
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.GameDelta;
+import com.example.battleboats.model.PlayerView;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formatul binar compact pentru /status, /status/poll și /fire, ales cu
+ * "Accept: application/x-battleboats" (fără el răspunsurile rămân JSON). Decodorul e în static/wire.js.
+ *
+ * Totul e big-endian. str = u8 lungime (255 = null) + UTF-8. status = 0 WAITING, 1 ACTIVE, 2 FINISHED.
+ * Tura și câștigătorul sunt referințe la jucători: 0 = nimeni, 1 = player1, 2 = player2.
+ *
+ * - vedere (1):  u8 tip, u32 versiune, u8 latură, u8 status, u8 tură, u8 câștigător, u8 rol,
+ *                str player1Id, str player2Id, apoi 5 bitmask-uri de ceil(latură²/8) bytes
+ *                (13 la 10x10; celula i = bitul i%8 din byte-ul i/8): myOccupied, shotsAtMe,
+ *                hitsAtMe, shotsAtOpponent, hitsAtOpponent;
+ * - deltă (2):   u8 tip, u32 versiune, u8 latură, u8 status, u8 tură, u8 câștigător,
+ *                str player1Id, str player2Id, u16 n, n × u16 lovitură
+ *                (bit 15 = țintă player1, bit 14 = hit, biții 0-13 = celula);
+ * - tragere (3): u8 tip, u8 flag-uri (bit 0 = hit, bit 1 = GAME_OVER), u16 celulă, u8 status,
+ *                str nextTurn, str winnerId.
+ *
+ * Erorile ({"error": ...}) rămân JSON, ca să le citească același cod din frontend.
+ */
+public final class BinaryWire {
+
+    public static final String MEDIA_TYPE = "application/x-battleboats";
+
+    static final byte KIND_VIEW = 1;
+    static final byte KIND_DELTA = 2;
+    static final byte KIND_FIRE = 3;
+
+    private static final int NULL_STRING = 255;
+    private static final int AT_PLAYER1 = 1 << 15;
+    private static final int HIT = 1 << 14;
+
+    private BinaryWire() {}
+
+    public static boolean accepts(String acceptHeader) {
+        return acceptHeader != null && acceptHeader.contains(MEDIA_TYPE);
+    }
+
+    public static byte[] encode(PlayerView view) {
+        int size = view.getBoardSize();
+        int maskBytes = (size * size + 7) / 8;
+        ByteBuffer buf = ByteBuffer.allocate(12 + idsSize(view.getPlayer1Id(), view.getPlayer2Id()) + 5 * maskBytes);
+        buf.put(KIND_VIEW);
+        buf.putInt((int) view.getVersion());
+        buf.put((byte) size);
+        buf.put(status(view.getStatus()));
+        buf.put(playerRef(view.getCurrentTurn(), view.getPlayer1Id(), view.getPlayer2Id()));
+        buf.put(playerRef(view.getWinnerId(), view.getPlayer1Id(), view.getPlayer2Id()));
+        buf.put((byte) ("PLAYER1".equals(view.getRole()) ? 1 : 2));
+        putString(buf, view.getPlayer1Id());
+        putString(buf, view.getPlayer2Id());
+        putMask(buf, view.getMyOccupied(), maskBytes);
+        putMask(buf, view.getShotsAtMe(), maskBytes);
+        putMask(buf, view.getHitsAtMe(), maskBytes);
+        putMask(buf, view.getShotsAtOpponent(), maskBytes);
+        putMask(buf, view.getHitsAtOpponent(), maskBytes);
+        return trimmed(buf);
+    }
+
+    public static byte[] encode(GameDelta delta) {
+        int shots = delta.getShotsAtPlayer1().size() + delta.getShotsAtPlayer2().size();
+        ByteBuffer buf = ByteBuffer.allocate(13 + idsSize(delta.getPlayer1Id(), delta.getPlayer2Id()) + 2 * shots);
+        buf.put(KIND_DELTA);
+        buf.putInt((int) delta.getVersion());
+        buf.put((byte) delta.getBoardSize());
+        buf.put(status(delta.getStatus()));
+        buf.put(playerRef(delta.getCurrentTurn(), delta.getPlayer1Id(), delta.getPlayer2Id()));
+        buf.put(playerRef(delta.getWinnerId(), delta.getPlayer1Id(), delta.getPlayer2Id()));
+        putString(buf, delta.getPlayer1Id());
+        putString(buf, delta.getPlayer2Id());
+        buf.putShort((short) shots);
+        putShots(buf, delta.getShotsAtPlayer1(), delta.getHitsAtPlayer1(), AT_PLAYER1);
+        putShots(buf, delta.getShotsAtPlayer2(), delta.getHitsAtPlayer2(), 0);
+        return trimmed(buf);
+    }
+
+    // Rezultatul de la GameService.fire (fără "error")
+    public static byte[] encodeFire(Map<String, Object> result) {
+        String nextTurn = (String) result.get("nextTurn");
+        String winnerId = (String) result.get("winnerId");
+        ByteBuffer buf = ByteBuffer.allocate(7 + idsSize(nextTurn, winnerId));
+        buf.put(KIND_FIRE);
+        int flags = (Boolean.TRUE.equals(result.get("hit")) ? 1 : 0) | ("GAME_OVER".equals(result.get("status")) ? 2 : 0);
+        buf.put((byte) flags);
+        buf.putShort((short) (int) (Integer) result.get("index"));
+        buf.put(status((String) result.get("gameStatus")));
+        putString(buf, nextTurn);
+        putString(buf, winnerId);
+        return trimmed(buf);
+    }
+
+    private static byte status(String status) {
+        if (status == null) return (byte) 255;
+        return switch (status) {
+            case "WAITING" -> 0;
+            case "ACTIVE" -> 1;
+            case "FINISHED" -> 2;
+            default -> (byte) 255;
+        };
+    }
+
+    private static byte playerRef(String id, String player1Id, String player2Id) {
+        if (id == null) return 0;
+        if (id.equals(player1Id)) return 1;
+        if (id.equals(player2Id)) return 2;
+        return 0;
+    }
+
+    // Lungimea maximă a celor două string-uri (UTF-8 are cel mult 3 bytes/char pentru id-urile noastre)
+    private static int idsSize(String a, String b) {
+        return 2 + (a == null ? 0 : 3 * a.length()) + (b == null ? 0 : 3 * b.length());
+    }
+
+    private static void putString(ByteBuffer buf, String s) {
+        if (s == null) {
+            buf.put((byte) NULL_STRING);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) throw new IllegalArgumentException("Id prea lung pentru formatul binar: " + s);
+        buf.put((byte) bytes.length);
+        buf.put(bytes);
+    }
+
+    private static void putMask(ByteBuffer buf, List<Integer> cells, int maskBytes) {
+        int start = buf.position();
+        buf.position(start + maskBytes); // zona e deja zero (buffer nou)
+        for (int cell : cells) {
+            int at = start + (cell >>> 3);
+            buf.put(at, (byte) (buf.get(at) | (1 << (cell & 7))));
+        }
+    }
+
+    // Loviturile la o tablă, în ordinea din joc; hit-urile sunt o subsecvență a lor, în aceeași ordine
+    private static void putShots(ByteBuffer buf, List<Integer> shots, List<Integer> hits, int target) {
+        int h = 0;
+        for (int cell : shots) {
+            boolean hit = h < hits.size() && hits.get(h) == cell;
+            if (hit) h++;
+            buf.putShort((short) (target | (hit ? HIT : 0) | cell));
+        }
+    }
+
+    private static byte[] trimmed(ByteBuffer buf) {
+        byte[] out = new byte[buf.position()];
+        buf.flip().get(out);
+        return out;
+    }
+}
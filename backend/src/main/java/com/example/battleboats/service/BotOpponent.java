@@ -0,0 +1,164 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adversar bot pentru single-player: /join?vsBot=true pornește direct un joc ACTIVE cu botul
+ * ca Player 2, fără să mai aștepte la coadă.
+ *
+ * Botul trage prin {@link GameService#fire}, exact ca un om (aceleași reguli de tură, jurnal,
+ * notificări, statistici). Când îi vine rândul programăm o mutare pe thread-ul "bot-player";
+ * alegerea celulei ({@link BotTargeting}) are un buget fix de timp pe mutare.
+ */
+@Service
+public class BotOpponent {
+
+    private static final Logger logger = LoggerFactory.getLogger(BotOpponent.class);
+
+    public static final String BOT_ID = "bot";
+
+    @Autowired
+    private GameRegistry registry;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlacementValidator placementValidator;
+
+    @Autowired
+    private GameJournal journal;
+
+    @Autowired
+    private MatchRecorder recorder;
+
+    @Autowired
+    private GameUpdateNotifier updateNotifier;
+
+    @Value("${battleboats.bot.move-budget-ms:20}")
+    private long moveBudgetMs;
+
+    // Pauză înainte de fiecare mutare, ca jucătorul să apuce să vadă ce s-a întâmplat
+    @Value("${battleboats.bot.move-delay-ms:600}")
+    private long moveDelayMs;
+
+    private final BotTargeting targeting = new BotTargeting(ForkJoinPool.commonPool(), 32);
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder budgetExceeded = new LongAdder();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "bot-player");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static boolean isBot(String playerId) {
+        return BOT_ID.equals(playerId);
+    }
+
+    /** Creează un joc activ om vs bot; omul e Player 1 și începe. */
+    public Game startGame(String userId, List<ShipController.ShipPlacement> ships, Board board) {
+        PlacementValidator.Result botFleet = placementValidator.randomFleet(board.getSize(), ThreadLocalRandom.current());
+        if (!botFleet.isValid()) throw new IllegalStateException(botFleet.error());
+
+        Game game = new Game(UUID.randomUUID().toString(), userId);
+
+        byte[] created, matched;
+        synchronized (game) {
+            game.setPlayer1Ships(ships);
+            game.setPlayer1Board(board);
+            registry.put(game);
+            created = journal.created(game);
+
+            game.setPlayer2Id(BOT_ID);
+            game.setPlayer2Board(botFleet.board());
+            game.setStatus("ACTIVE");
+            game.setStartedAtMillis(System.currentTimeMillis());
+            game.touch();
+            matched = journal.matched(game);
+            recorder.started(game);
+        }
+        journal.append(created);
+        journal.append(matched);
+        updateNotifier.publish(game.getId(), game);
+        return game;
+    }
+
+    /** Apelat după fiecare tragere a omului: dacă acum e rândul botului, programăm mutarea. */
+    public void afterMove(String gameId) {
+        Game game = registry.get(gameId);
+        if (game == null || !isBot(game.getPlayer2Id())) return;
+        if (isBotTurn(game) && scheduled.add(gameId)) {
+            executor.schedule(() -> play(gameId), moveDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static boolean isBotTurn(Game game) {
+        return "ACTIVE".equals(game.getStatus()) && BOT_ID.equals(game.getCurrentTurn());
+    }
+
+    private void play(String gameId) {
+        scheduled.remove(gameId);
+        Game game = registry.get(gameId);
+        if (game == null) return;
+
+        int size;
+        long[] shots, hits;
+        synchronized (game) {
+            if (!isBotTurn(game)) return;
+            Board target = game.getPlayer1Board();
+            size = target.getSize();
+            shots = target.copyShots();
+            hits = target.copyHits();
+        }
+
+        try {
+            BotTargeting.Shot shot = targeting.choose(size, shots, hits, placementValidator.fleetLengths(size),
+                    placementValidator.isAllowTouching(), TimeUnit.MILLISECONDS.toNanos(moveBudgetMs),
+                    ThreadLocalRandom.current());
+            if (!shot.complete()) budgetExceeded.increment();
+
+            Map<String, Object> result = gameService.fire(gameId, BOT_ID, shot.cell());
+            if (result.containsKey("error")) {
+                logger.warn("Botul nu a putut trage in jocul {}: {}", gameId, result.get("error"));
+                return;
+            }
+            moves.increment();
+        } catch (RuntimeException e) {
+            logger.error("Eroare la mutarea botului in jocul {}", gameId, e);
+            return;
+        }
+
+        // hit => botul trage din nou
+        afterMove(gameId);
+    }
+
+    public long getMoves() { return moves.sum(); }
+    public long getBudgetExceeded() { return budgetExceeded.sum(); }
+}
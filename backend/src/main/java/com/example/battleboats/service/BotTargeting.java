@@ -0,0 +1,190 @@
+package com.example.battleboats.service;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Motorul de țintire al botului: hartă de probabilitate ("probability density").
+ *
+ * Pentru fiecare lungime de navă din flotă și fiecare poziție posibilă (start x orientare) verificăm
+ * dacă poziția e compatibilă cu ce știm (nu acoperă niciun miss); dacă da, adăugăm greutatea ei
+ * la toate celulele încă netrase pe care le acoperă. Pozițiile care trec prin hit-uri deja găsite
+ * primesc o greutate mult mai mare, deci după un hit botul "vânează" în jurul lui. Trage apoi în
+ * celula cu greutatea cea mai mare.
+ *
+ * Rândurile de start se împart în bucăți calculate în paralel pe un {@link ForkJoinPool} (doar
+ * pe table mari, la 10x10 nu merită). Fiecare bucată verifică termenul limită înainte de fiecare
+ * rând: dacă bugetul s-a terminat, folosim harta parțială calculată până atunci, iar dacă nu
+ * avem nimic, tragem aleator pe o celulă de paritate (tabla în șah).
+ *
+ * Când navele nu au voie să se atingă, celulele de pe diagonala unui hit sunt sigur goale, așa că
+ * le tratăm ca pe niște miss-uri (nu le mai țintim și elimină pozițiile care trec prin ele).
+ *
+ * Botul vede doar loviturile și hit-urile de pe tabla adversarului, nu și navele.
+ */
+public final class BotTargeting {
+
+    // Cât de mult cântărește fiecare hit acoperit de o poziție
+    private static final long HIT_WEIGHT = 40;
+
+    // Sub atâtea rânduri de start o bucată nu se mai împarte
+    private static final int ROWS_PER_TASK = 8;
+
+    public record Shot(int cell, boolean complete) {}
+
+    private final ForkJoinPool pool;
+    private final int parallelFromSize;
+
+    public BotTargeting(ForkJoinPool pool, int parallelFromSize) {
+        this.pool = pool;
+        this.parallelFromSize = parallelFromSize;
+    }
+
+    /**
+     * Alege următoarea celulă.
+     *
+     * @param size         latura tablei
+     * @param shots        loviturile de pe tabla adversarului (cuvinte ca în Board)
+     * @param hits         hit-urile de pe tabla adversarului
+     * @param fleetLengths câte nave de fiecare lungime are flota (index = lungime)
+     * @param shipsMayTouch dacă regula jocului permite nave lipite
+     * @param budgetNanos  cât avem voie să calculăm
+     */
+    public Shot choose(int size, long[] shots, long[] hits, int[] fleetLengths, boolean shipsMayTouch,
+                       long budgetNanos, Random random) {
+        if (!shipsMayTouch) shots = withDiagonalsOfHits(size, shots, hits);
+        long deadline = System.nanoTime() + budgetNanos;
+        AtomicBoolean timedOut = new AtomicBoolean();
+        Heatmap task = new Heatmap(size, shots, hits, fleetLengths, 0, size, deadline, timedOut);
+        long[] density = size >= parallelFromSize ? pool.invoke(task) : task.compute();
+
+        int best = -1;
+        long bestWeight = 0;
+        int ties = 0;
+        for (int cell = 0; cell < density.length; cell++) {
+            long w = density[cell];
+            if (w == 0 || w < bestWeight) continue;
+            if (w > bestWeight) {
+                bestWeight = w;
+                best = cell;
+                ties = 1;
+            } else if (random.nextInt(++ties) == 0) {
+                best = cell; // egalitate: alegem uniform între ele
+            }
+        }
+        if (best < 0) best = fallback(size, shots, random);
+        return new Shot(best, !timedOut.get());
+    }
+
+    // Celulă netrasă aleatoare, de preferat de paritate (orice navă >= 2 acoperă o astfel de celulă)
+    private static int fallback(int size, long[] shots, Random random) {
+        int cells = size * size;
+        int start = random.nextInt(cells);
+        int any = -1;
+        for (int i = 0; i < cells; i++) {
+            int cell = (start + i) % cells;
+            if (isSet(shots, cell)) continue;
+            if (((cell / size) + (cell % size)) % 2 == 0) return cell;
+            if (any < 0) any = cell;
+        }
+        return any;
+    }
+
+    // Loviturile + celulele de pe diagonala fiecărui hit (goale sigur, dacă navele nu se ating)
+    private static long[] withDiagonalsOfHits(int size, long[] shots, long[] hits) {
+        long[] known = shots.clone();
+        for (int i = 0; i < hits.length; i++) {
+            for (long w = hits[i]; w != 0; w &= w - 1) {
+                int cell = (i << 6) + Long.numberOfTrailingZeros(w);
+                int row = cell / size, col = cell % size;
+                for (int dr = -1; dr <= 1; dr += 2) {
+                    for (int dc = -1; dc <= 1; dc += 2) {
+                        int r = row + dr, c = col + dc;
+                        if (r < 0 || c < 0 || r >= size || c >= size) continue;
+                        int n = r * size + c;
+                        known[n >>> 6] |= 1L << n;
+                    }
+                }
+            }
+        }
+        return known;
+    }
+
+    private static boolean isSet(long[] words, int cell) {
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static final class Heatmap extends RecursiveTask<long[]> {
+        private final int size;
+        private final long[] shots, hits;
+        private final int[] fleetLengths;
+        private final int fromRow, toRow;
+        private final long deadline;
+        private final AtomicBoolean timedOut;
+
+        Heatmap(int size, long[] shots, long[] hits, int[] fleetLengths, int fromRow, int toRow,
+                long deadline, AtomicBoolean timedOut) {
+            this.size = size;
+            this.shots = shots;
+            this.hits = hits;
+            this.fleetLengths = fleetLengths;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.deadline = deadline;
+            this.timedOut = timedOut;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toRow - fromRow > ROWS_PER_TASK && getPool() != null) {
+                int mid = (fromRow + toRow) >>> 1;
+                Heatmap left = new Heatmap(size, shots, hits, fleetLengths, fromRow, mid, deadline, timedOut);
+                Heatmap right = new Heatmap(size, shots, hits, fleetLengths, mid, toRow, deadline, timedOut);
+                left.fork();
+                long[] sum = right.compute();
+                long[] other = left.join();
+                for (int i = 0; i < sum.length; i++) sum[i] += other[i];
+                return sum;
+            }
+
+            long[] density = new long[size * size];
+            for (int row = fromRow; row < toRow; row++) {
+                if (timedOut.get() || System.nanoTime() > deadline) {
+                    timedOut.set(true);
+                    break;
+                }
+                for (int len = 1; len < fleetLengths.length; len++) {
+                    if (fleetLengths[len] == 0) continue;
+                    for (int col = 0; col < size; col++) {
+                        addPlacement(density, row, col, len, true);
+                        if (len > 1) addPlacement(density, row, col, len, false);
+                    }
+                }
+            }
+            return density;
+        }
+
+        private void addPlacement(long[] density, int row, int col, int len, boolean horizontal) {
+            if (horizontal ? col + len > size : row + len > size) return;
+            int start = row * size + col, step = horizontal ? 1 : size;
+
+            int coveredHits = 0, unshot = 0;
+            for (int i = 0, cell = start; i < len; i++, cell += step) {
+                if (isSet(shots, cell)) {
+                    if (!isSet(hits, cell)) return; // trece printr-un miss => imposibil
+                    coveredHits++;
+                } else {
+                    unshot++;
+                }
+            }
+            if (unshot == 0) return;
+
+            long weight = fleetLengths[len] * (1 + HIT_WEIGHT * coveredHits * coveredHits);
+            for (int i = 0, cell = start; i < len; i++, cell += step) {
+                if (!isSet(shots, cell)) density[cell] += weight;
+            }
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Jurnal append-only pentru jocurile din memorie, ca un restart/crash să nu piardă meciurile în curs.
+ *
+ * Fiecare eveniment (joc creat, adversar intrat, tragere, schimbare de status, joc șters) e scris
+ * într-un segment mapat în memorie ({@code journal-NNNNNNNN.log}); când segmentul se umple trecem
+ * la următorul. Periodic scriem un snapshot compact al tuturor jocurilor și ștergem segmentele
+ * dinaintea lui. La pornire {@link GameJournalRecovery} citește snapshot-ul + coada de segmente.
+ *
+ * Un append e doar o rezervare cu CAS și o copiere în page cache, fără lock; fsync-ul depinde de
+ * {@code battleboats.journal.sync}: NONE (lăsăm OS-ul), GROUP (thread-ul de flush face force() la
+ * câteva ms, pentru toate scrierile adunate între timp) sau ALWAYS (force() la fiecare eveniment,
+ * după ce s-au publicat și toate înregistrările rezervate înaintea lui, altfel replay-ul s-ar opri
+ * la golul lăsat de ele și am pierde o înregistrare deja confirmată).
+ *
+ * Format înregistrare: [lungime:int][tip:byte][id joc][secvență:int][payload] (REMOVE fără
+ * secvență); lungimea se scrie ultima, deci o înregistrare ruptă de crash apare ca lungime 0 și
+ * replay-ul se oprește curat acolo.
+ */
+@Service
+public class GameJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    public enum SyncPolicy { NONE, GROUP, ALWAYS }
+
+    static final byte CREATE = 1;
+    static final byte MATCH = 2;
+    static final byte SHOT = 3;
+    static final byte STATUS = 4;
+    static final byte REMOVE = 5;
+
+    private static final int SNAPSHOT_MAGIC = 0x42425331; // "BBS1"
+
+    /** Primește înregistrările la replay, în ordinea în care au fost scrise. */
+    public interface RecordHandler {
+        void handle(byte type, ByteBuffer payload);
+    }
+
+    @Value("${battleboats.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${battleboats.journal.dir:./data/journal}")
+    private Path dir;
+
+    @Value("${battleboats.journal.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${battleboats.journal.sync:GROUP}")
+    private SyncPolicy sync;
+
+    @Value("${battleboats.journal.group-commit-ms:10}")
+    private long groupCommitMs;
+
+    @Autowired
+    private GameRegistry registry;
+
+    /**
+     * Un segment mapat. {@code state} ține în biții de sus offset-ul până la care s-a rezervat loc și
+     * în cei de jos câți scriitori sunt încă în el: rezervarea e un singur getAndAdd, iar cine forțează
+     * un segment rotit știe când a terminat și ultimul scriitor.
+     *
+     * Doar la ALWAYS: {@code published} e offset-ul până la care toate înregistrările au lungimea
+     * scrisă (avansează strict în ordinea rezervărilor), iar {@code forced} cel până la care s-a făcut force().
+     */
+    static final class Segment {
+        final int index;
+        final MappedByteBuffer buf;
+        final AtomicLong state = new AtomicLong();
+        final AtomicLong published = new AtomicLong();
+        final AtomicLong forced = new AtomicLong();
+
+        Segment(int index, MappedByteBuffer buf) {
+            this.index = index;
+            this.buf = buf;
+        }
+    }
+
+    private static final long WRITER = 1L;
+    private static final long WRITERS_MASK = 0xFFFFFFFFL;
+
+    // Bufferul în care se codează o înregistrare, per thread (se copiază apoi într-un byte[] exact)
+    private static final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(4096));
+
+    private volatile Segment segment;
+    private final Object rotateLock = new Object();
+    private volatile boolean dirty;
+    private volatile boolean changedSinceSnapshot;
+    private volatile boolean closed;
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) return;
+        Files.createDirectories(dir);
+        int index = listSegments().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+        segment = new Segment(index, mapSegment(index));
+
+        // pe thread-ul ăsta se forțează și segmentele rotite, deci există la orice politică de sync
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-journal-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        if (sync == SyncPolicy.GROUP) {
+            flusher.scheduleWithFixedDelay(this::flush, groupCommitMs, groupCommitMs, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Jurnal jocuri in {} (segment {}, sync={})", dir.toAbsolutePath(), index, sync);
+    }
+
+    /**
+     * La oprire request-urile în curs pot încă scrie: după {@code closed} fiecare append își forțează
+     * singur segmentul (nu mai există fereastră de group commit), iar o rotire retrage segmentul vechi
+     * pe thread-ul apelantului. Apoi forțăm segmentul curent, ca ultima fereastră GROUP să nu se piardă.
+     */
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (flusher == null) return;
+        closed = true;
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        segment.buf.force();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // --- Evenimente ---
+    //
+    // created/matched/shot/status doar codează înregistrarea (fără să atingă jurnalul) și se cheamă
+    // sub monitorul jocului: acolo primește jocul următorul număr de secvență, deci ordinea din
+    // jurnal a unui joc e ordinea reală chiar dacă append-urile se întrec între ele. Înregistrarea
+    // se scrie cu append() după ce monitorul e eliberat, ca jocul să nu aștepte după disc.
+
+    public byte[] created(Game game) {
+        if (!enabled) return null;
+        ByteBuffer buf = begin(CREATE, game);
+        putString(buf, game.getPlayer1Id());
+        game.getPlayer1Board().writeOccupied(buf);
+        return end(buf);
+    }
+
+    public byte[] matched(Game game) {
+        if (!enabled) return null;
+        ByteBuffer buf = begin(MATCH, game);
+        putString(buf, game.getPlayer2Id());
+        game.getPlayer2Board().writeOccupied(buf);
+        return end(buf);
+    }
+
+    public byte[] shot(Game game, boolean shooterIsP1, int cell) {
+        if (!enabled) return null;
+        ByteBuffer buf = begin(SHOT, game);
+        buf.put(shooterIsP1 ? (byte) 1 : 0);
+        buf.putInt(cell);
+        return end(buf);
+    }
+
+    public byte[] status(Game game) {
+        if (!enabled) return null;
+        ByteBuffer buf = begin(STATUS, game);
+        putString(buf, game.getStatus());
+        putString(buf, game.getWinnerId());
+        buf.put(game.isScoreAwarded() ? (byte) 1 : 0);
+        return end(buf);
+    }
+
+    /** Jocul a ieșit din memorie; ultima lui înregistrare, deci nu are nevoie de secvență. */
+    public void removed(String gameId) {
+        if (!enabled) return;
+        ByteBuffer buf = scratch.get().clear();
+        buf.put(REMOVE);
+        putString(buf, gameId);
+        append(end(buf));
+    }
+
+    private static ByteBuffer begin(byte type, Game game) {
+        ByteBuffer buf = scratch.get().clear();
+        buf.put(type);
+        putString(buf, game.getId());
+        buf.putInt(game.nextJournalSeq());
+        return buf;
+    }
+
+    private static byte[] end(ByteBuffer buf) {
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    /**
+     * Scrie o înregistrare codată de created/matched/shot/status (null = jurnal oprit, nu face nimic).
+     *
+     * Fără lock: un getAndAdd pe starea segmentului rezervă locul, apoi copiem cu put-uri absolute
+     * (nu ating poziția bufferului, deci merg în paralel pe zone diferite) și publicăm lungimea
+     * ultima. Doar trecerea la segmentul următor ia un lock, iar force() nu se face niciodată aici
+     * (în afară de ALWAYS, unde asta e chiar ce s-a cerut, și de după close()).
+     */
+    public void append(byte[] record) {
+        if (record == null) return;
+        while (true) {
+            Segment seg = segment;
+            int pos = reserve(seg, 4 + record.length);
+            if (pos >= 0) {
+                publish(seg, pos, record);
+                return;
+            }
+            if (rotate(seg) == null) {
+                logger.error("Inregistrare de jurnal pierduta, nu pot roti segmentul {}", seg.index);
+                return;
+            }
+        }
+    }
+
+    Segment current() {
+        return segment;
+    }
+
+    /**
+     * Rezervă {@code size} octeți în segment și întoarce offset-ul lor, sau -1 dacă nu mai încap
+     * (atunci toate rezervările de după nu încap nici ele, deci cele reușite sunt un prefix continuu).
+     */
+    int reserve(Segment seg, int size) {
+        long state = seg.state.getAndAdd(((long) size << 32) + WRITER);
+        int pos = (int) (state >>> 32);
+        // +4 ca să rămână mereu un terminator 0 la final de segment
+        if ((long) pos + size + 4 <= segmentBytes) return pos;
+        seg.state.getAndAdd(-WRITER);
+        return -1;
+    }
+
+    // Copiază înregistrarea în locul rezervat și o publică (lungimea ultima)
+    void publish(Segment seg, int pos, byte[] record) {
+        int end = pos + 4 + record.length;
+        seg.buf.put(pos + 4, record);
+        VarHandle.releaseFence(); // payload-ul înaintea lungimii, și pentru JIT
+        seg.buf.putInt(pos, record.length);
+        seg.state.getAndAdd(-WRITER);
+
+        if (!changedSinceSnapshot) changedSinceSnapshot = true;
+        if (sync == SyncPolicy.ALWAYS) {
+            // așteptăm rezervările de dinainte (doar copiază câțiva octeți), apoi forțăm tot până la noi
+            while (seg.published.get() != pos) Thread.onSpinWait();
+            seg.published.set(end);
+            forceThrough(seg, end);
+        } else if (closed) {
+            seg.buf.force();
+        } else if (!dirty) {
+            dirty = true;
+        }
+    }
+
+    private static void forceThrough(Segment seg, long end) {
+        long from = seg.forced.get();
+        if (from >= end) return; // un scriitor de după noi a forțat deja și zona noastră
+        seg.buf.force((int) from, (int) (end - from));
+        seg.forced.accumulateAndGet(end, Math::max);
+    }
+
+    // Forțează segmentul curent; rulează pe thread-ul de flush, fără niciun lock ținut
+    private void flush() {
+        if (!dirty) return;
+        dirty = false;
+        segment.buf.force();
+    }
+
+    /**
+     * Trece de la {@code full} la segmentul următor, dacă nu a făcut-o deja alt thread, și întoarce
+     * segmentul curent de după (null dacă maparea a eșuat). Sub lock e doar maparea fișierului nou;
+     * segmentul vechi e forțat pe thread-ul de flush, după ce ies din el ultimii scriitori.
+     */
+    private Segment rotate(Segment full) {
+        synchronized (rotateLock) {
+            Segment current = segment;
+            if (current != full) return current;
+            try {
+                segment = new Segment(full.index + 1, mapSegment(full.index + 1));
+            } catch (IOException e) {
+                logger.error("Nu pot roti segmentul de jurnal: {}", e.getMessage());
+                return null;
+            }
+        }
+        try {
+            flusher.execute(() -> retire(full));
+        } catch (RejectedExecutionException e) {
+            retire(full); // close() a oprit deja thread-ul de flush
+        }
+        return segment;
+    }
+
+    private void retire(Segment full) {
+        // scriitorii rămași au rezervat deja locul, deci doar copiază câțiva octeți
+        while ((full.state.get() & WRITERS_MASK) != 0) Thread.onSpinWait();
+        full.buf.force();
+    }
+
+    // --- Snapshot + compactare ---
+
+    @Scheduled(fixedDelayString = "${battleboats.journal.snapshot-interval-ms:60000}",
+            initialDelayString = "${battleboats.journal.snapshot-interval-ms:60000}")
+    public void scheduledSnapshot() {
+        if (!enabled || !changedSinceSnapshot) return;
+        snapshot(registry.all());
+    }
+
+    /**
+     * Scrie un snapshot al jocurilor date și șterge segmentele (și snapshot-urile) mai vechi.
+     * Trecem întâi la un segment nou: tot ce se scrie de acum înainte intră în replay peste snapshot
+     * (snapshot-ul ține și secvența fiecărui joc, deci replay-ul sare ce conține deja).
+     */
+    public void snapshot(Collection<Game> games) {
+        if (!enabled) return;
+        Segment from = rotate(segment);
+        if (from == null) {
+            logger.error("Snapshot anulat, nu pot roti segmentul");
+            return;
+        }
+        int fromSegment = from.index;
+        changedSinceSnapshot = false;
+
+        Path tmp = dir.resolve("snapshot.tmp");
+        int count = 0;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+            buf.putInt(SNAPSHOT_MAGIC).putInt(fromSegment).putInt(0); // numărul de jocuri îl completăm la final
+            for (Game game : games) {
+                // sub monitor doar copiem starea; scrierea pe disc se face după, ca fire să nu aștepte
+                byte[] encoded;
+                synchronized (game) {
+                    encoded = encodeGame(game);
+                }
+                if (buf.remaining() < encoded.length) {
+                    buf.flip();
+                    while (buf.hasRemaining()) out.write(buf);
+                    buf.clear();
+                }
+                if (encoded.length > buf.capacity()) {
+                    ByteBuffer big = ByteBuffer.wrap(encoded);
+                    while (big.hasRemaining()) out.write(big);
+                } else {
+                    buf.put(encoded);
+                }
+                count++;
+            }
+            buf.flip();
+            while (buf.hasRemaining()) out.write(buf);
+            out.write(ByteBuffer.allocate(4).putInt(0, count), 8);
+            out.force(true);
+        } catch (IOException e) {
+            logger.error("Nu pot scrie snapshot-ul: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(tmp, snapshotPath(fromSegment), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (int index : listSegments()) {
+                if (index < fromSegment) Files.deleteIfExists(segmentPath(index));
+            }
+            for (int index : listSnapshots()) {
+                if (index < fromSegment) Files.deleteIfExists(snapshotPath(index));
+            }
+        } catch (IOException e) {
+            logger.warn("Compactare jurnal incompletă: {}", e.getMessage());
+        }
+        logger.debug("Snapshot jurnal: {} jocuri, segment {}", count, fromSegment);
+    }
+
+    private static byte[] encodeGame(Game game) {
+        ByteBuffer buf = ByteBuffer.allocate(8 * 1024 + 2 * Board.serializedSize(game.getBoardSize()) + game.getMoveCount() * 8);
+        writeGame(buf, game);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    private static void writeGame(ByteBuffer buf, Game game) {
+        putString(buf, game.getId());
+        putString(buf, game.getPlayer1Id());
+        putString(buf, game.getPlayer2Id());
+        putString(buf, game.getStatus());
+        putString(buf, game.getCurrentTurn());
+        putString(buf, game.getWinnerId());
+        buf.put(game.isScoreAwarded() ? (byte) 1 : 0);
+        buf.putLong(game.getVersion());
+        buf.putLong(game.getLastActivityMillis());
+        buf.putInt(game.getJournalSeq());
+        game.getPlayer1Board().writeTo(buf);
+        game.getPlayer2Board().writeTo(buf);
+        long[] moves = game.copyMoves();
+        buf.putInt(moves.length);
+        for (long move : moves) buf.putLong(move);
+    }
+
+    static Game readGame(ByteBuffer buf) {
+        Game game = new Game(getString(buf), getString(buf));
+        game.setPlayer2Id(getString(buf));
+        game.setStatus(getString(buf));
+        game.setCurrentTurn(getString(buf));
+        game.setWinnerId(getString(buf));
+        game.setScoreAwarded(buf.get() == 1);
+        long version = buf.getLong();
+        long lastActivity = buf.getLong();
+        game.setJournalSeq(buf.getInt());
+        game.setPlayer1Board(Board.readFrom(buf));
+        game.setPlayer2Board(Board.readFrom(buf));
+        long[] moves = new long[buf.getInt()];
+        for (int i = 0; i < moves.length; i++) moves[i] = buf.getLong();
+        game.restore(version, moves, lastActivity);
+        return game;
+    }
+
+    // --- Citire la pornire ---
+
+    /**
+     * Încarcă cel mai nou snapshot (dacă există), apoi trece prin toate segmentele de după el.
+     * Jocurile din snapshot merg la {@code snapshotGames}, înregistrările din segmente la {@code handler}.
+     */
+    void recover(Consumer<Game> snapshotGames, RecordHandler handler) throws IOException {
+        if (!enabled) return;
+
+        int fromSegment = 0;
+        int latest = listSnapshots().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        if (latest >= 0) {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(snapshotPath(latest)));
+            int magic = buf.getInt();
+            if (magic == SNAPSHOT_MAGIC) {
+                fromSegment = buf.getInt();
+                int count = buf.getInt();
+                for (int i = 0; i < count; i++) snapshotGames.accept(readGame(buf));
+            }
+        }
+
+        for (int index : listSegments()) {
+            if (index < fromSegment || index >= segment.index) continue;
+            try (FileChannel ch = FileChannel.open(segmentPath(index), StandardOpenOption.READ)) {
+                MappedByteBuffer seg = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                while (seg.remaining() >= 4) {
+                    int len = seg.getInt();
+                    if (len <= 0 || len > seg.remaining()) break;
+                    ByteBuffer record = seg.slice(seg.position(), len);
+                    seg.position(seg.position() + len);
+                    handler.handle(record.get(), record);
+                }
+            }
+        }
+    }
+
+    // --- Utilitare ---
+
+    private static void putString(ByteBuffer buf, String s) {
+        if (s == null) {
+            buf.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) bytes.length);
+        buf.put(bytes);
+    }
+
+    static String getString(ByteBuffer buf) {
+        int len = buf.getShort();
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private MappedByteBuffer mapSegment(int index) throws IOException {
+        try (FileChannel ch = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return dir.resolve(String.format("journal-%08d.log", index));
+    }
+
+    private Path snapshotPath(int index) {
+        return dir.resolve(String.format("snapshot-%08d.bin", index));
+    }
+
+    private List<Integer> listSegments() throws IOException {
+        return listIndexed("journal-", ".log");
+    }
+
+    private List<Integer> listSnapshots() throws IOException {
+        return listIndexed("snapshot-", ".bin");
+    }
+
+    private List<Integer> listIndexed(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(prefix) && n.endsWith(suffix))
+                    .map(n -> Integer.parseInt(n.substring(prefix.length(), n.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * La pornire reface jocurile din {@link GameJournal}: snapshot + înregistrările de după el.
+ *
+ * Append-urile se fac după ce monitorul jocului e eliberat, deci în jurnal înregistrările a două
+ * request-uri pe același joc pot apărea inversate. Fiecare are însă secvența primită sub monitor:
+ * le aplicăm strict în ordinea ei, le ținem deoparte pe cele venite prea devreme și le sărim pe cele
+ * deja cuprinse în snapshot. Un joc șters rămâne șters (o înregistrare întârziată nu îl reînvie).
+ * Tragerile trec prin aceleași reguli ca live ({@link GameService#applyShot}), deci tura, statusul
+ * și versiunea ies identice, iar clienții își continuă long-poll-ul cu același `since`.
+ */
+@Service
+public class GameJournalRecovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameJournalRecovery.class);
+
+    @Autowired
+    private GameJournal journal;
+
+    @Autowired
+    private GameRegistry registry;
+
+    @Autowired
+    private MatchmakingService matchmaking;
+
+    @Autowired
+    private BotOpponent bots;
+
+    // Doar pe durata replay-ului: înregistrările care își așteaptă rândul și jocurile șterse
+    private final Map<String, TreeMap<Integer, Pending>> pending = new HashMap<>();
+    private final Set<String> removed = new HashSet<>();
+
+    private record Pending(byte type, ByteBuffer payload) {}
+
+    @PostConstruct
+    void recover() throws IOException {
+        if (!journal.isEnabled()) return;
+
+        int[] replayed = {0};
+        journal.recover(registry::put, (type, payload) -> {
+            apply(type, payload);
+            replayed[0]++;
+        });
+
+        int dropped = pending.values().stream().mapToInt(Map::size).sum();
+        if (dropped > 0) {
+            logger.warn("Inregistrari de jurnal fara predecesor, ignorate: {} (in {} jocuri)", dropped, pending.size());
+        }
+        pending.clear();
+        removed.clear();
+
+        int waiting = 0;
+        for (Game game : registry.all()) {
+            if ("WAITING".equals(game.getStatus())) {
+                matchmaking.restore(game);
+                waiting++;
+            } else {
+                bots.afterMove(game.getId()); // dacă botul era la rând înainte de restart
+            }
+        }
+
+        if (registry.size() > 0) {
+            logger.info("Jocuri refacute din jurnal: {} ({} in asteptare, {} evenimente reluate)", registry.size(), waiting, replayed[0]);
+        }
+        journal.snapshot(registry.all());
+    }
+
+    private void apply(byte type, ByteBuffer payload) {
+        String gameId = GameJournal.getString(payload);
+        if (type == GameJournal.REMOVE) {
+            registry.remove(gameId);
+            removed.add(gameId);
+            pending.remove(gameId);
+            return;
+        }
+        if (removed.contains(gameId)) return;
+
+        int seq = payload.getInt();
+        Game game = registry.get(gameId);
+        int expected = game == null ? 0 : game.getJournalSeq();
+        if (seq < expected) return; // deja în snapshot
+        if (seq > expected) {
+            pending.computeIfAbsent(gameId, k -> new TreeMap<>()).put(seq, new Pending(type, payload));
+            return;
+        }
+
+        applyNext(gameId, type, payload);
+        TreeMap<Integer, Pending> waiting = pending.get(gameId);
+        while (waiting != null && !waiting.isEmpty()) {
+            game = registry.get(gameId);
+            if (game == null || waiting.firstKey() != game.getJournalSeq()) break;
+            Pending next = waiting.pollFirstEntry().getValue();
+            applyNext(gameId, next.type(), next.payload());
+        }
+        if (waiting != null && waiting.isEmpty()) pending.remove(gameId);
+    }
+
+    // Înregistrarea cu secvența așteptată de joc (payload-ul e deja după id și secvență)
+    private void applyNext(String gameId, byte type, ByteBuffer payload) {
+        Game game = registry.get(gameId);
+        if (game == null && type != GameJournal.CREATE) {
+            logger.warn("Inregistrare de jurnal pentru un joc necunoscut: {} (tip {})", gameId, type);
+            return;
+        }
+        switch (type) {
+            case GameJournal.CREATE -> {
+                game = new Game(gameId, GameJournal.getString(payload));
+                game.setPlayer1Board(Board.readOccupied(payload));
+                registry.put(game);
+            }
+            case GameJournal.MATCH -> {
+                game.setPlayer2Id(GameJournal.getString(payload));
+                game.setPlayer2Board(Board.readOccupied(payload));
+                game.setStatus("ACTIVE");
+                game.touch();
+            }
+            case GameJournal.SHOT -> {
+                boolean shooterIsP1 = payload.get() == 1;
+                int cell = payload.getInt();
+                if ("ACTIVE".equals(game.getStatus())) {
+                    GameService.applyShot(game, shooterIsP1, cell);
+                    if ("FINISHED".equals(game.getStatus())) game.setScoreAwarded(true);
+                }
+            }
+            case GameJournal.STATUS -> {
+                game.setStatus(GameJournal.getString(payload));
+                game.setWinnerId(GameJournal.getString(payload));
+                game.setScoreAwarded(payload.get() == 1);
+                game.touch();
+            }
+            default -> logger.warn("Tip necunoscut in jurnal: {}", type);
+        }
+        game.nextJournalSeq();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Curăță jocurile abandonate (tab închis fără /leave) cu un "hashed timing wheel":
+ * fiecare joc are o singură intrare în roată, pusă în slotul termenului său.
+ *
+ * Activitatea nu re-programează nimic (doar actualizează lastActivity pe joc); abia când slotul
+ * ajunge la rând recalculăm termenul după status și, dacă jocul s-a mișcat între timp, îl punem
+ * din nou în roată. Costul pe tick e proporțional doar cu intrările din slotul curent.
+ *
+ * - WAITING inactiv: jocul e șters (și scos din coada de matchmaking)
+ * - ACTIVE inactiv: jucătorul la rând pierde prin abandon
+ * - FINISHED: după perioada de grație jocul trece în arhiva din {@link GameRegistry}
+ */
+@Service
+public class GameLifecycleManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameLifecycleManager.class);
+
+    private static final int SLOTS = 512;
+    private static final long TICK_MS = 1000;
+
+    private record Entry(String gameId, long deadlineMillis) {}
+
+    @Autowired
+    private GameRegistry registry;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private MatchmakingService matchmaking;
+
+    @Autowired
+    private GameUpdateNotifier updateNotifier;
+
+    @Autowired
+    private GameJournal journal;
+
+    @Value("${battleboats.games.waiting-timeout-ms:600000}")
+    private long waitingTimeoutMs;
+
+    @Value("${battleboats.games.active-idle-timeout-ms:300000}")
+    private long activeIdleTimeoutMs;
+
+    @Value("${battleboats.games.finished-grace-ms:120000}")
+    private long finishedGraceMs;
+
+    @SuppressWarnings("unchecked")
+    private final Queue<Entry>[] wheel = new Queue[SLOTS];
+    private final AtomicLong currentTick = new AtomicLong();
+
+    private final AtomicLong evictedWaiting = new AtomicLong();
+    private final AtomicLong forfeitedActive = new AtomicLong();
+    private final AtomicLong archivedFinished = new AtomicLong();
+
+    public GameLifecycleManager() {
+        for (int i = 0; i < SLOTS; i++) wheel[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    @Scheduled(fixedRate = TICK_MS)
+    public void tick() {
+        // jocurile noi intră în roată o singură dată, pe tot ciclul lor de viață
+        Game added;
+        while ((added = registry.pollAdded()) != null) {
+            schedule(added.getId(), deadlineOf(added));
+        }
+
+        long tick = currentTick.incrementAndGet();
+        Queue<Entry> slot = wheel[(int) (tick & (SLOTS - 1))];
+
+        // golim slotul întâi, ca re-programările din expire() să nu cadă în bucla curentă
+        List<Entry> due = new ArrayList<>();
+        Entry e;
+        while ((e = slot.poll()) != null) due.add(e);
+
+        long now = System.currentTimeMillis();
+        for (Entry entry : due) {
+            if (entry.deadlineMillis() > now) {
+                schedule(entry.gameId(), entry.deadlineMillis()); // încă o tură de roată
+            } else {
+                try {
+                    expire(entry.gameId(), now);
+                } catch (Exception ex) {
+                    logger.warn("Eroare la expirarea jocului {}: {}", entry.gameId(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void expire(String gameId, long now) {
+        Game game = registry.get(gameId);
+        if (game == null || !registry.contains(game)) return; // a plecat prin /leave sau e deja arhivat
+
+        long deadline = deadlineOf(game);
+        if (deadline > now) {
+            schedule(gameId, deadline); // a avut activitate între timp
+            return;
+        }
+
+        switch (game.getStatus()) {
+            case "WAITING" -> {
+                matchmaking.cancel(game.getPlayer1Id(), gameId);
+                if (registry.remove(gameId) != null) {
+                    journal.removed(gameId);
+                    updateNotifier.publish(gameId, null);
+                    evictedWaiting.incrementAndGet();
+                }
+            }
+            case "ACTIVE" -> {
+                if (gameService.forfeit(game)) forfeitedActive.incrementAndGet();
+                schedule(gameId, deadlineOf(game));
+            }
+            default -> {
+                if (registry.archive(game)) {
+                    journal.removed(gameId);
+                    updateNotifier.publish(gameId, null);
+                    archivedFinished.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private long deadlineOf(Game game) {
+        long timeout = switch (String.valueOf(game.getStatus())) {
+            case "WAITING" -> waitingTimeoutMs;
+            case "ACTIVE" -> activeIdleTimeoutMs;
+            default -> finishedGraceMs;
+        };
+        return game.getLastActivityMillis() + timeout;
+    }
+
+    private void schedule(String gameId, long deadlineMillis) {
+        long ticks = Math.max(1, (deadlineMillis - System.currentTimeMillis() + TICK_MS - 1) / TICK_MS);
+        // mai departe de o rotație completă => ajungem în slot mai devreme și re-programăm
+        ticks = Math.min(ticks, SLOTS - 1);
+        wheel[(int) ((currentTick.get() + ticks) & (SLOTS - 1))].add(new Entry(gameId, deadlineMillis));
+    }
+
+    public long getEvictedWaiting() { return evictedWaiting.get(); }
+    public long getForfeitedActive() { return forfeitedActive.get(); }
+    public long getArchivedFinished() { return archivedFinished.get(); }
+}
@@ -0,0 +1,149 @@
+package com.example.battleboats.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Metricile de pe drumurile fierbinți (Micrometer, expuse la /actuator/prometheus).
+ *
+ * Toate meter-ele sunt create o singură dată, aici, și ținute în array-uri indexate după enum:
+ * pe /fire înregistrarea e un Timer.record cu instanța gata făcută, fără lookup după nume/tag-uri
+ * și fără alocări. Gauge-urile (jocuri pe status, coada de matchmaking etc.) sunt în MetricsConfig
+ * și se calculează doar când Prometheus citește.
+ */
+@Service
+public class GameMetrics {
+
+    public enum Op { JOIN, FIRE, STATUS, LEAVE }
+
+    public enum FireRejection { UNKNOWN_GAME, INACTIVE, NOT_A_PLAYER, INVALID_GAME, WRONG_TURN, INVALID_CELL, REPEATED_CELL }
+
+    // Diferența de rating la o împerechere ranked, pe intervale (tag-ul "gap" de la battleboats.matchmaking.ranked.wait)
+    public enum RatingGap {
+        UNDER_50(50), UNDER_100(100), UNDER_200(200), OVER_200(Integer.MAX_VALUE);
+
+        private final int below;
+
+        RatingGap(int below) {
+            this.below = below;
+        }
+
+        static RatingGap of(int gap) {
+            for (RatingGap bucket : values()) {
+                if (gap < bucket.below) return bucket;
+            }
+            return OVER_200;
+        }
+    }
+
+    public enum DbCall {
+        USERS_FIND_BY_USERNAME("users.findByUsername"),
+        USERS_SAVE("users.save"),
+        USER_SKINS_SAVE("user_skins.save"),
+        USER_STATS_LOAD("user_stats.load");
+
+        private final String tag;
+
+        DbCall(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer[] requests = new Timer[Op.values().length];
+    private final Counter[] fireRejections = new Counter[FireRejection.values().length];
+    private final Timer[] db = new Timer[DbCall.values().length];
+    private final Timer matchmakingWait;
+    private final Timer[] rankedWait = new Timer[RatingGap.values().length];
+    private final DistributionSummary rankedGap;
+    private final Counter[] throttled = new Counter[RateLimiter.Endpoint.values().length];
+
+    public GameMetrics(MeterRegistry registry) {
+        for (Op op : Op.values()) {
+            requests[op.ordinal()] = Timer.builder("battleboats.game.requests")
+                    .description("Timpul de procesare al request-urilor de joc (fără așteptarea long-poll)")
+                    .tag("op", tagOf(op))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(50_000))
+                    .maximumExpectedValue(Duration.ofSeconds(2))
+                    .register(registry);
+        }
+        for (FireRejection reason : FireRejection.values()) {
+            fireRejections[reason.ordinal()] = Counter.builder("battleboats.game.fire.rejected")
+                    .description("Trageri respinse (tură greșită, celulă repetată etc.)")
+                    .tag("reason", tagOf(reason))
+                    .register(registry);
+        }
+        for (DbCall call : DbCall.values()) {
+            db[call.ordinal()] = Timer.builder("battleboats.db.calls")
+                    .description("Apelurile la baza de date din UserService")
+                    .tag("call", call.tag)
+                    .register(registry);
+        }
+        for (RateLimiter.Endpoint endpoint : RateLimiter.Endpoint.values()) {
+            throttled[endpoint.ordinal()] = Counter.builder("battleboats.ratelimit.throttled")
+                    .description("Request-uri respinse cu 429 de limitarea per user")
+                    .tag("endpoint", tagOf(endpoint))
+                    .register(registry);
+        }
+        matchmakingWait = Timer.builder("battleboats.matchmaking.wait")
+                .description("Cât a stat un jucător la coadă până a primit adversar")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+        for (RatingGap gap : RatingGap.values()) {
+            rankedWait[gap.ordinal()] = Timer.builder("battleboats.matchmaking.ranked.wait")
+                    .description("Așteptarea la coada ranked, după diferența de rating a perechii găsite")
+                    .tag("gap", tagOf(gap))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(10))
+                    .register(registry);
+        }
+        rankedGap = DistributionSummary.builder("battleboats.matchmaking.ranked.gap")
+                .description("Diferența de rating dintre doi jucători împerecheați ranked")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(registry);
+    }
+
+    // startNanos = System.nanoTime() de la începutul request-ului
+    public void request(Op op, long startNanos) {
+        requests[op.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void fireRejected(FireRejection reason) {
+        fireRejections[reason.ordinal()].increment();
+    }
+
+    public void throttled(RateLimiter.Endpoint endpoint) {
+        throttled[endpoint.ordinal()].increment();
+    }
+
+    public void matchmakingWait(long nanos) {
+        matchmakingWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // waitNanos = cât a așteptat cel care a stat mai mult la coadă
+    public void rankedMatch(long waitNanos, int ratingGap) {
+        rankedWait[RatingGap.of(ratingGap).ordinal()].record(waitNanos, TimeUnit.NANOSECONDS);
+        rankedGap.record(ratingGap);
+    }
+
+    public <T> T db(DbCall call, Supplier<T> query) {
+        return db[call.ordinal()].record(query);
+    }
+
+    private static String tagOf(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
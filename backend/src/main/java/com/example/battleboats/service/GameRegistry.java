@@ -0,0 +1,81 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Game;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Memorie temporară pentru jocurile în desfășurare (cheie = ID joc).
+ *
+ * Jocurile terminate trec după o perioadă de grație într-o arhivă mărginită (LRU), ca un client
+ * întârziat să mai poată vedea rezultatul fără ca heap-ul să crească la nesfârșit.
+ */
+@Service
+public class GameRegistry {
+
+    private final Map<String, Game> games = new ConcurrentHashMap<>();
+    private final Map<String, Game> archived;
+
+    // Jocuri noi încă nepreluate de GameLifecycleManager (le ia la fiecare tick)
+    private final Queue<Game> added = new ConcurrentLinkedQueue<>();
+
+    public GameRegistry(@Value("${battleboats.games.archive-size:10000}") int archiveSize) {
+        this.archived = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Game> eldest) {
+                return size() > archiveSize;
+            }
+        });
+    }
+
+    public Game get(String gameId) {
+        if (gameId == null) return null;
+        Game game = games.get(gameId);
+        return game != null ? game : archived.get(gameId);
+    }
+
+    public void put(Game game) {
+        games.put(game.getId(), game);
+        added.add(game);
+    }
+
+    public Game pollAdded() {
+        return added.poll();
+    }
+
+    public Game remove(String gameId) {
+        Game game = games.remove(gameId);
+        return game != null ? game : archived.remove(gameId);
+    }
+
+    // Mută un joc terminat din memoria "vie" în arhivă
+    public boolean archive(Game game) {
+        if (!games.remove(game.getId(), game)) return false;
+        archived.put(game.getId(), game);
+        return true;
+    }
+
+    public boolean contains(Game game) {
+        return games.get(game.getId()) == game;
+    }
+
+    public Collection<Game> all() {
+        return games.values();
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+    public int archivedSize() {
+        return archived.size();
+    }
+}
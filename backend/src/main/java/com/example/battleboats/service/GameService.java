@@ -0,0 +1,197 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Logica de joc pentru /fire.
+ *
+ * Comenzile pe același joc rulează serial: fiecare {@link Game} e propriul lui monitor, deci
+ * două click-uri rapide pe același joc nu mai pot trece amândouă de verificarea de tură sau de
+ * "ai mai tras aici". Jocuri diferite nu împart niciun lock și rulează complet în paralel.
+ * Publicarea către pollerii și scrierea statisticilor se fac după ce eliberăm lock-ul;
+ * jurnalul se scrie sub lock, ca ordinea evenimentelor unui joc să fie aceeași și la replay.
+ * Înregistrarea meciului (MatchRecorder) doar pune evenimentul într-o coadă, deci nu ține lock-ul.
+ */
+@Service
+public class GameService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameService.class);
+
+    @Autowired
+    private GameRegistry registry;
+
+    @Autowired
+    private GameUpdateNotifier updateNotifier;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GameJournal journal;
+
+    @Autowired
+    private MatchRecorder recorder;
+
+    @Autowired
+    private MatchHistoryService history;
+
+    @Autowired
+    private RatingService ratings;
+
+    @Autowired
+    private GameMetrics metrics;
+
+    public Map<String, Object> fire(String gameId, String userId, int cellIndex) {
+        Game game = registry.get(gameId);
+        if (game == null) return rejected(GameMetrics.FireRejection.UNKNOWN_GAME, "Joc inexistent!");
+
+        Map<String, Object> response = new HashMap<>();
+        boolean awardScore;
+        byte[] journalRecord; // scris în jurnal după ce eliberăm jocul
+
+        synchronized (game) {
+            if (!"ACTIVE".equals(game.getStatus())) return rejected(GameMetrics.FireRejection.INACTIVE, "Joc inactiv!");
+            if (!userId.equals(game.getPlayer1Id()) && !userId.equals(game.getPlayer2Id())) return rejected(GameMetrics.FireRejection.NOT_A_PLAYER, "Jucător invalid!");
+
+            // Guard: currentTurn poate fi null in unele cazuri (sau player2 lipseste)
+            if (game.getCurrentTurn() == null) {
+                // daca exista ambii jucatori, resetam la player1; altfel jocul e invalid
+                if (game.getPlayer1Id() != null && game.getPlayer2Id() != null) {
+                    game.setCurrentTurn(game.getPlayer1Id());
+                } else {
+                    return rejected(GameMetrics.FireRejection.INVALID_GAME, "Joc invalid: adversar lipsă sau tură nedefinită.");
+                }
+            }
+
+            if (!game.getCurrentTurn().equals(userId)) return rejected(GameMetrics.FireRejection.WRONG_TURN, "Nu e rândul tău!");
+
+            boolean shooterIsP1 = userId.equals(game.getPlayer1Id());
+
+            Board target = shooterIsP1 ? game.getPlayer2Board() : game.getPlayer1Board();
+            if (target == null) {
+                return rejected(GameMetrics.FireRejection.INVALID_GAME, "Joc invalid: date lipsă pentru adversar.");
+            }
+            if (!target.contains(cellIndex)) return rejected(GameMetrics.FireRejection.INVALID_CELL, "Celulă invalidă!");
+
+            int result = applyShot(game, shooterIsP1, cellIndex);
+            if (result == Board.ALREADY_SHOT) return rejected(GameMetrics.FireRejection.REPEATED_CELL, "Ai mai tras aici!");
+            journalRecord = journal.shot(game, shooterIsP1, cellIndex);
+            recorder.shot(game, game.getMoveCount() - 1);
+
+            boolean hit = result == Board.HIT;
+            boolean win = "FINISHED".equals(game.getStatus());
+            if (win) recorder.finished(game);
+
+            // stats o singura data
+            awardScore = win && !game.isScoreAwarded();
+            if (win) game.setScoreAwarded(true);
+
+            response.put("status", win ? "GAME_OVER" : "SHOT_FIRED");
+            response.put("index", cellIndex);
+            response.put("hit", hit);
+            response.put("nextTurn", game.getCurrentTurn());
+            response.put("gameStatus", game.getStatus());
+            response.put("winnerId", game.getWinnerId()); // poate fi null pana la final
+        }
+
+        journal.append(journalRecord);
+        updateNotifier.publish(gameId, game);
+        if (awardScore) recordResult(game, userId);
+        return response;
+    }
+
+    private Map<String, Object> rejected(GameMetrics.FireRejection reason, String error) {
+        metrics.fireRejected(reason);
+        return Map.of("error", error);
+    }
+
+    /**
+     * Regulile unei trageri, fără validări de tură/jucător (le face apelantul, sub monitorul jocului).
+     * Folosită și la replay-ul jurnalului, ca starea refăcută să fie identică cu cea live.
+     */
+    public static int applyShot(Game game, boolean shooterIsP1, int cellIndex) {
+        Board target = shooterIsP1 ? game.getPlayer2Board() : game.getPlayer1Board();
+
+        int result = target.fire(cellIndex);
+        if (result == Board.ALREADY_SHOT) return result;
+
+        boolean hit = result == Board.HIT;
+        if (!hit) {
+            // miss => schimbam tura (doar daca exista adversar)
+            String next = shooterIsP1 ? game.getPlayer2Id() : game.getPlayer1Id();
+            if (next != null) {
+                game.setCurrentTurn(next);
+            }
+        }
+
+        // Win condition: toate celulele ocupate ale tintei au fost lovite
+        if (hit && target.allSunk()) {
+            game.setStatus("FINISHED");
+            game.setWinnerId(shooterIsP1 ? game.getPlayer1Id() : game.getPlayer2Id());
+        }
+
+        // versiunea crește ultima, după tură/status, ca pollerii să vadă starea completă
+        game.recordShot(!shooterIsP1, cellIndex, hit);
+        return result;
+    }
+
+    /**
+     * Încheie un joc activ abandonat: câștigă jucătorul care aștepta (cel care NU e la rând).
+     * Întoarce false dacă jocul nu mai era activ.
+     */
+    public boolean forfeit(Game game) {
+        String winnerId;
+        byte[] journalRecord;
+        synchronized (game) {
+            if (!"ACTIVE".equals(game.getStatus()) || game.getPlayer2Id() == null) return false;
+
+            winnerId = game.getPlayer1Id().equals(game.getCurrentTurn()) ? game.getPlayer2Id() : game.getPlayer1Id();
+            game.setStatus("FINISHED");
+            game.setWinnerId(winnerId);
+            if (game.isScoreAwarded()) winnerId = null;
+            game.setScoreAwarded(true);
+            game.touch();
+            journalRecord = journal.status(game);
+            recorder.finished(game);
+        }
+        journal.append(journalRecord);
+
+        updateNotifier.publish(game.getId(), game);
+        if (winnerId != null) recordResult(game, winnerId);
+        return true;
+    }
+
+    // O singură dată per joc (scoreAwarded): istoricul și statisticile, ambele scrise asincron
+    private void recordResult(Game game, String winnerId) {
+        history.finished(game);
+        try {
+            Long player1Id = userIdOf(game.getPlayer1Id());
+            Long player2Id = userIdOf(game.getPlayer2Id());
+            boolean player1Won = winnerId.equals(game.getPlayer1Id());
+            long duration = game.getStartedAtMillis() > 0 ? System.currentTimeMillis() - game.getStartedAtMillis() : -1;
+            // rating doar între doi useri (nu contra botului)
+            int ratingDelta = player1Id != null && player2Id != null ? ratings.recordGame(player1Id, player2Id, player1Won) : 0;
+
+            userService.recordGameResult(player1Id, new StatsWriteBehind.Outcome(
+                    player1Won, game.getPlayer2Board().shotCount(), game.getPlayer2Board().hitCount(), duration, ratingDelta));
+            userService.recordGameResult(player2Id, new StatsWriteBehind.Outcome(
+                    !player1Won, game.getPlayer1Board().shotCount(), game.getPlayer1Board().hitCount(), duration, -ratingDelta));
+        } catch (Exception e) {
+            logger.warn("Nu am putut salva statisticile pentru jocul {}: {}", game.getId(), e.getMessage());
+        }
+    }
+
+    // Id-ul numeric din tabela users, sau null pentru jucători care nu sunt useri (botul)
+    private static Long userIdOf(String playerId) {
+        if (playerId == null || BotOpponent.isBot(playerId)) return null;
+        return Long.parseLong(playerId);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Game;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-poll pentru starea jocului: clientul trimite ultima versiune văzută, iar request-ul
+ * stă "parcat" până când jocul se schimbă (sau expiră timeout-ul).
+ *
+ * Numărul de conexiuni parcate pe nod e limitat; peste limită răspundem 503 + Retry-After,
+ * iar clientul revine la un poll simplu după o secundă.
+ *
+ * Delta trimisă la publish e serializată o singură dată pe format (GameViews), oricâți clienți așteaptă jocul.
+ */
+@Service
+public class GameUpdateNotifier {
+
+    private record Waiter(long since, boolean binary, DeferredResult<ResponseEntity<byte[]>> result) {}
+
+    private final Map<String, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger parked = new AtomicInteger();
+
+    @Autowired
+    private GameViews views;
+
+    @Value("${battleboats.poll.max-parked:2000}")
+    private int maxParked;
+
+    @Value("${battleboats.poll.timeout-ms:25000}")
+    private long timeoutMs;
+
+    /**
+     * Întoarce imediat delta față de {@code since} dacă jocul are deja o versiune mai nouă,
+     * altfel parchează request-ul până la următorul {@link #publish}.
+     */
+    public DeferredResult<ResponseEntity<byte[]>> await(String gameId, Game game, long since, boolean binary) {
+        DeferredResult<ResponseEntity<byte[]>> result =
+                new DeferredResult<>(timeoutMs, ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        if (game == null) {
+            result.setResult(ResponseEntity.notFound().build());
+            return result;
+        }
+        if (game.getVersion() > since) {
+            result.setResult(GameViews.ok(views.delta(game, since, binary), binary));
+            return result;
+        }
+
+        if (parked.incrementAndGet() > maxParked) {
+            parked.decrementAndGet();
+            result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build());
+            return result;
+        }
+
+        // add-ul și scoaterea cozii goale (onCompletion) sunt atomice pe cheie, deci un waiter nu
+        // poate ajunge într-o coadă tocmai scoasă din map; altfel fiecare joc urmărit vreodată
+        // ar lăsa în urmă o coadă (jocurile arhivate sau închise din browser nu publică null)
+        Waiter waiter = new Waiter(since, binary, result);
+        waiters.compute(gameId, (k, queue) -> {
+            if (queue == null) queue = new ConcurrentLinkedQueue<>();
+            queue.add(waiter);
+            return queue;
+        });
+        result.onCompletion(() -> {
+            parked.decrementAndGet();
+            waiters.computeIfPresent(gameId, (k, queue) -> {
+                queue.remove(waiter);
+                return queue.isEmpty() ? null : queue;
+            });
+        });
+
+        // publish() poate să fi rulat între verificarea de mai sus și add(); nu pierdem update-ul
+        if (game.getVersion() > since) {
+            result.setResult(GameViews.ok(views.delta(game, since, binary), binary));
+        }
+        return result;
+    }
+
+    // Trezește toți clienții care așteaptă jocul dat; game == null înseamnă că jocul a fost șters
+    // (abia atunci scoatem și coada, ca un await() concurent să nu rămână pe o coadă orfană)
+    public void publish(String gameId, Game game) {
+        Queue<Waiter> queue = game == null ? waiters.remove(gameId) : waiters.get(gameId);
+        if (queue == null) return;
+
+        Waiter waiter;
+        while ((waiter = queue.poll()) != null) {
+            waiter.result().setResult(game == null
+                    ? ResponseEntity.notFound().build()
+                    : GameViews.ok(views.delta(game, waiter.since(), waiter.binary()), waiter.binary()));
+        }
+    }
+
+    public int getParkedCount() {
+        return parked.get();
+    }
+}
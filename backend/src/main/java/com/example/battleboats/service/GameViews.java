@@ -0,0 +1,85 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.EncodedView;
+import com.example.battleboats.model.Game;
+import com.example.battleboats.model.GameDelta;
+import com.example.battleboats.model.PlayerView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Răspunsurile /status și /status/poll, serializate o singură dată pe versiune de joc
+ * (JSON sau formatul binar din {@link BinaryWire}, după header-ul Accept).
+ *
+ * Între două mutări toți cei care întreabă primesc aceleași bytes: vederea fiecărui jucător
+ * (PlayerView) și ultima deltă (de obicei toți așteaptă de la aceeași versiune) stau pe joc,
+ * în {@link Game#getEncodedViews()}. O mutare nouă crește versiunea, deci intrările vechi nu se
+ * mai potrivesc și sunt înlocuite la prima cerere; nu e nevoie de invalidare explicită.
+ *
+ * Două thread-uri care ratează cache-ul simultan serializează amândouă; câștigă ultimul, iar
+ * rezultatul e același.
+ */
+@Service
+public class GameViews {
+
+    // Slot-urile din Game.getEncodedViews(): JSON în 0-2, aceleași vederi în binar în 3-5
+    private static final int PLAYER1 = 0;
+    private static final int PLAYER2 = 1;
+    private static final int DELTA = 2;
+    private static final int BINARY = 3;
+
+    private static final MediaType BINARY_TYPE = MediaType.parseMediaType(BinaryWire.MEDIA_TYPE);
+
+    private final ObjectMapper mapper;
+
+    public GameViews(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public byte[] playerView(Game game, boolean player1, boolean binary) {
+        AtomicReferenceArray<EncodedView> views = game.getEncodedViews();
+        int slot = (player1 ? PLAYER1 : PLAYER2) + (binary ? BINARY : 0);
+        EncodedView cached = views.get(slot);
+        if (cached != null && cached.matches(-1, game.getVersion())) return cached.bytes();
+
+        PlayerView view = PlayerView.of(game, player1);
+        byte[] bytes = binary ? BinaryWire.encode(view) : encode(view);
+        views.set(slot, new EncodedView(-1, view.getVersion(), bytes));
+        return bytes;
+    }
+
+    public byte[] delta(Game game, long since, boolean binary) {
+        AtomicReferenceArray<EncodedView> views = game.getEncodedViews();
+        int slot = DELTA + (binary ? BINARY : 0);
+        EncodedView cached = views.get(slot);
+        if (cached != null && cached.matches(since, game.getVersion())) return cached.bytes();
+
+        GameDelta delta = GameDelta.since(game, since);
+        byte[] bytes = binary ? BinaryWire.encode(delta) : encode(delta);
+        views.set(slot, new EncodedView(since, delta.getVersion(), bytes));
+        return bytes;
+    }
+
+    // byte[] cu content-type explicit: Spring scrie bytes-ii direct, fără să mai treacă prin Jackson.
+    // Vary: Accept, ca un cache intermediar să nu servească binarul unui client care vrea JSON.
+    public static ResponseEntity<byte[]> ok(byte[] body, boolean binary) {
+        return ResponseEntity.ok()
+                .contentType(binary ? BINARY_TYPE : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    private byte[] encode(Object view) {
+        try {
+            return mapper.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Nu am putut serializa starea jocului", e);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.LeaderboardEntry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clasamentul ținut în memorie, ca /api/leaderboard să nu mai atingă MySQL.
+ *
+ * Structura e un treap cu dimensiunea subarborelui în fiecare nod (arbore de statistici de ordine),
+ * sortat exact ca înainte: wins desc, gamesPlayed desc, username asc. Asta dă în O(log n)
+ * "pe ce loc e userul X", "al k-lea jucător" și deci paginare cu offset și "jucătorii din jurul lui X".
+ *
+ * Se încarcă o dată din `users` la pornire și se actualizează la fiecare schimbare de statistici
+ * (din {@link StatsWriteBehind}), deci e cu un pas înaintea DB-ului, nu în urma lui.
+ */
+@Service
+public class LeaderboardIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardIndex.class);
+
+    private static final class Node {
+        final long userId;
+        final String username;
+        final int gamesPlayed;
+        final int wins;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node left, right;
+
+        Node(long userId, String username, int gamesPlayed, int wins) {
+            this.userId = userId;
+            this.username = username;
+            this.gamesPlayed = gamesPlayed;
+            this.wins = wins;
+        }
+    }
+
+    public record Ranked(int rank, LeaderboardEntry entry) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Node> byUserId = new HashMap<>();
+    private final Map<String, Long> userIdByUsername = new HashMap<>();
+    private Node root;
+
+    @PostConstruct
+    void load() {
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query("SELECT id, username, games_played, wins FROM users", rs -> {
+                put(new Node(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4)));
+            });
+            logger.info("Leaderboard incarcat: {} useri", byUserId.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Actualizări ---
+
+    public void addUser(long userId, String username) {
+        lock.writeLock().lock();
+        try {
+            if (!byUserId.containsKey(userId)) put(new Node(userId, username, 0, 0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void applyDelta(long userId, int gamesPlayed, int wins) {
+        lock.writeLock().lock();
+        try {
+            Node old = byUserId.get(userId);
+            if (old == null) return; // user necunoscut (ex. șters între timp)
+            root = delete(root, old);
+            put(new Node(userId, old.username, old.gamesPlayed + gamesPlayed, old.wins + wins));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Interogări ---
+
+    public List<Ranked> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Ranked> out = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - offset)));
+            for (int i = Math.max(0, offset); i < size(root) && out.size() < limit; i++) {
+                out.add(new Ranked(i + 1, toEntry(select(root, i))));
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Locul (1-based) userului, sau null dacă nu îl știm
+    public Ranked rankOf(String username) {
+        lock.readLock().lock();
+        try {
+            Node node = nodeOf(username);
+            return node == null ? null : new Ranked(rank(node) + 1, toEntry(node));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Ranked> around(String username, int radius) {
+        lock.readLock().lock();
+        try {
+            Node node = nodeOf(username);
+            if (node == null) return List.of();
+            int r = rank(node);
+            return page(Math.max(0, r - radius), 2 * radius + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Treap ---
+
+    private void put(Node node) {
+        Node previous = byUserId.put(node.userId, node);
+        if (previous != null && previous != node) root = delete(root, previous);
+        userIdByUsername.put(node.username, node.userId);
+        root = insert(root, node);
+    }
+
+    private Node nodeOf(String username) {
+        Long userId = userIdByUsername.get(username);
+        return userId == null ? null : byUserId.get(userId);
+    }
+
+    // Ordinea din clasament: wins desc, gamesPlayed desc, username asc
+    private static int compare(Node a, Node b) {
+        if (a.wins != b.wins) return Integer.compare(b.wins, a.wins);
+        if (a.gamesPlayed != b.gamesPlayed) return Integer.compare(b.gamesPlayed, a.gamesPlayed);
+        int byName = a.username.compareTo(b.username);
+        return byName != 0 ? byName : Long.compare(a.userId, b.userId);
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static Node update(Node n) {
+        n.size = 1 + size(n.left) + size(n.right);
+        return n;
+    }
+
+    private static Node insert(Node t, Node n) {
+        if (t == null) return n;
+        if (compare(n, t) < 0) {
+            t.left = insert(t.left, n);
+            if (t.left.priority > t.priority) t = rotateRight(t);
+        } else {
+            t.right = insert(t.right, n);
+            if (t.right.priority > t.priority) t = rotateLeft(t);
+        }
+        return update(t);
+    }
+
+    private static Node delete(Node t, Node n) {
+        if (t == null) return null;
+        int c = compare(n, t);
+        if (c < 0) {
+            t.left = delete(t.left, n);
+        } else if (c > 0) {
+            t.right = delete(t.right, n);
+        } else {
+            if (t.left == null) return t.right;
+            if (t.right == null) return t.left;
+            if (t.left.priority > t.right.priority) {
+                t = rotateRight(t);
+                t.right = delete(t.right, n);
+            } else {
+                t = rotateLeft(t);
+                t.left = delete(t.left, n);
+            }
+        }
+        return update(t);
+    }
+
+    private static Node rotateRight(Node t) {
+        Node l = t.left;
+        t.left = l.right;
+        l.right = update(t);
+        return update(l);
+    }
+
+    private static Node rotateLeft(Node t) {
+        Node r = t.right;
+        t.right = r.left;
+        r.left = update(t);
+        return update(r);
+    }
+
+    // Câte noduri sunt înaintea lui n în ordine (rank 0-based)
+    private int rank(Node n) {
+        int rank = 0;
+        Node t = root;
+        while (t != null) {
+            int c = compare(n, t);
+            if (c < 0) {
+                t = t.left;
+            } else {
+                if (c == 0) return rank + size(t.left);
+                rank += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        return rank;
+    }
+
+    private static Node select(Node t, int k) {
+        while (t != null) {
+            int leftSize = size(t.left);
+            if (k < leftSize) {
+                t = t.left;
+            } else if (k == leftSize) {
+                return t;
+            } else {
+                k -= leftSize + 1;
+                t = t.right;
+            }
+        }
+        return null;
+    }
+
+    private static LeaderboardEntry toEntry(Node n) {
+        return new LeaderboardEntry(n.username, n.gamesPlayed, n.wins);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Game;
+import com.example.battleboats.model.MatchHistoryEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Istoricul meciurilor terminate (tabela match_history).
+ *
+ * La final de joc /fire doar pune un rând într-o coadă mărginită (offer: dacă e plină rândul se
+ * pierde și e contorizat, dar /fire nu așteaptă niciodată după DB). Un job periodic golește coada
+ * în batch-uri JDBC, fiecare batch într-o tranzacție: dacă pică, niciun rând nu a fost scris. La o
+ * eroare tranzitorie (conexiune, deadlock) punem rândurile înapoi în coadă pentru următorul flush;
+ * altfel e de obicei un singur rând stricat, deci le scriem pe rând și renunțăm doar la cele care
+ * pică (altfel același rând ar bloca tot istoricul la fiecare flush).
+ *
+ * Citirea e paginată keyset pe id ("mai vechi decât id-ul X"), nu cu OFFSET: pagina 1000 costă cât
+ * prima, pentru că fiecare parte (player1 / player2) e o citire scurtă din indexul (player, id).
+ */
+@Service
+public class MatchHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchHistoryService.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO match_history (game_id, player1_id, player2_id, winner_id, vs_bot, board_size,
+                player1_shots, player1_hits, player2_shots, player2_hits, started_at, ended_at, duration_ms)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String COLUMNS = """
+            id, game_id, player1_id, player2_id, winner_id, vs_bot, board_size,
+            player1_shots, player1_hits, player2_shots, player2_hits, started_at, ended_at, duration_ms""";
+
+    private static final String PAGE_AS_PLAYER1_SQL =
+            "SELECT " + COLUMNS + " FROM match_history WHERE player1_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+    private static final String PAGE_AS_PLAYER2_SQL =
+            "SELECT " + COLUMNS + " FROM match_history WHERE player2_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+
+    /** O pagină de istoric; nextBefore se trimite înapoi ca ?before= pentru pagina următoare (null = gata). */
+    public record Page(List<MatchHistoryEntry> matches, Long nextBefore) {}
+
+    private record Row(String gameId, Long player1Id, Long player2Id, Long winnerId, boolean vsBot, int boardSize,
+                       int player1Shots, int player1Hits, int player2Shots, int player2Hits,
+                       long startedAt, long endedAt) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${battleboats.history.queue:10000}")
+    private int queueSize;
+
+    @Value("${battleboats.history.batch-size:500}")
+    private int batchSize;
+
+    private BlockingQueue<Row> pending;
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        pending = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    // Apelat o singură dată per joc, după final (după ce /fire sau forfeit au eliberat lock-ul jocului)
+    public void finished(Game game) {
+        Long player1Id = userIdOf(game.getPlayer1Id());
+        Long player2Id = userIdOf(game.getPlayer2Id());
+        Row row = new Row(game.getId(), player1Id, player2Id, userIdOf(game.getWinnerId()),
+                BotOpponent.isBot(game.getPlayer2Id()), game.getBoardSize(),
+                game.getPlayer2Board().shotCount(), game.getPlayer2Board().hitCount(),
+                game.getPlayer1Board().shotCount(), game.getPlayer1Board().hitCount(),
+                game.getStartedAtMillis(), System.currentTimeMillis());
+        if (!pending.offer(row)) dropped.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${battleboats.history.flush-interval-ms:1000}")
+    public void flush() {
+        List<Row> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        while (pending.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), MatchHistoryService::bind));
+            } catch (Exception e) {
+                if (isTransient(e)) {
+                    requeue(batch, e);
+                    return;
+                }
+                logger.warn("Batch istoric meciuri respins ({} randuri), le scriu pe rand: {}", batch.size(), e.getMessage());
+                if (!insertOneByOne(batch)) return;
+            }
+            batch.clear();
+        }
+    }
+
+    // Fiecare rând separat (autocommit); întoarce false dacă o eroare tranzitorie a oprit flush-ul
+    private boolean insertOneByOne(List<Row> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Row row = batch.get(i);
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+            } catch (Exception e) {
+                if (isTransient(e)) {
+                    requeue(batch.subList(i, batch.size()), e);
+                    return false;
+                }
+                dropped.increment();
+                logger.error("Rand de istoric respins, il ignor (joc {}): {}", row.gameId(), e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // Rândurile nescrise înapoi în coadă (cât încap), pentru următorul flush
+    private void requeue(List<Row> rows, Exception e) {
+        int lost = 0;
+        for (Row row : rows) {
+            if (!pending.offer(row)) lost++;
+        }
+        dropped.add(lost);
+        logger.warn("Flush istoric meciuri esuat ({} randuri, {} pierdute), reincerc: {}", rows.size(), lost, e.getMessage());
+    }
+
+    // Erori după care același rând poate reuși mai târziu; restul (constrângeri, date greșite) nu
+    private static boolean isTransient(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private static void bind(PreparedStatement ps, Row row) throws SQLException {
+        ps.setString(1, row.gameId());
+        setLong(ps, 2, row.player1Id());
+        setLong(ps, 3, row.player2Id());
+        setLong(ps, 4, row.winnerId());
+        ps.setBoolean(5, row.vsBot());
+        ps.setInt(6, row.boardSize());
+        ps.setInt(7, row.player1Shots());
+        ps.setInt(8, row.player1Hits());
+        ps.setInt(9, row.player2Shots());
+        ps.setInt(10, row.player2Hits());
+        ps.setTimestamp(11, row.startedAt() > 0 ? new Timestamp(row.startedAt()) : null);
+        ps.setTimestamp(12, new Timestamp(row.endedAt()));
+        setLong(ps, 13, row.startedAt() > 0 ? row.endedAt() - row.startedAt() : null);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.error("Istoric nescris la oprire pentru {} meciuri", pending.size());
+        }
+    }
+
+    /** Meciurile userului, cele mai noi primele, strict mai vechi decât before (null = de la început). */
+    public Page page(long userId, Long before, int limit) {
+        long cursor = before == null ? Long.MAX_VALUE : before;
+        RowMapper<MatchHistoryEntry> mapper = (rs, i) -> {
+            boolean player1 = rs.getLong("player1_id") == userId && !rs.wasNull();
+            Timestamp startedAt = rs.getTimestamp("started_at");
+            long duration = rs.getLong("duration_ms");
+            boolean knownDuration = !rs.wasNull();
+            long opponent = rs.getLong(player1 ? "player2_id" : "player1_id");
+            boolean hasOpponent = !rs.wasNull();
+            long winner = rs.getLong("winner_id");
+            boolean won = !rs.wasNull() && winner == userId;
+            return new MatchHistoryEntry(
+                    rs.getLong("id"),
+                    rs.getString("game_id"),
+                    hasOpponent ? opponent : null,
+                    rs.getBoolean("vs_bot"),
+                    won,
+                    rs.getInt("board_size"),
+                    rs.getInt(player1 ? "player1_shots" : "player2_shots"),
+                    rs.getInt(player1 ? "player1_hits" : "player2_hits"),
+                    rs.getInt(player1 ? "player2_shots" : "player1_shots"),
+                    rs.getInt(player1 ? "player2_hits" : "player1_hits"),
+                    startedAt != null ? startedAt.toInstant() : null,
+                    rs.getTimestamp("ended_at").toInstant(),
+                    knownDuration ? duration : null);
+        };
+
+        // Câte o citire din fiecare index, apoi primele `limit` după id (un user nu joacă cu el însuși)
+        List<MatchHistoryEntry> matches = new ArrayList<>(2 * limit);
+        matches.addAll(jdbcTemplate.query(PAGE_AS_PLAYER1_SQL, mapper, userId, cursor, limit));
+        matches.addAll(jdbcTemplate.query(PAGE_AS_PLAYER2_SQL, mapper, userId, cursor, limit));
+        matches.sort(Comparator.comparingLong(MatchHistoryEntry::id).reversed());
+        if (matches.size() > limit) matches = new ArrayList<>(matches.subList(0, limit));
+
+        Long nextBefore = matches.size() == limit && limit > 0 ? matches.get(limit - 1).id() : null;
+        return new Page(matches, nextBefore);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.BIGINT);
+        else ps.setLong(index, value);
+    }
+
+    // Id-ul numeric din tabela users, sau null pentru bot
+    private static Long userIdOf(String playerId) {
+        if (playerId == null || BotOpponent.isBot(playerId)) return null;
+        return Long.parseLong(playerId);
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Game;
+import com.example.battleboats.model.MatchRecord;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Înregistrează meciurile pentru replay: plasările, fiecare tragere cu momentul ei și rezultatul.
+ *
+ * Pe drumul fierbinte (/fire, matchmaking) doar punem un eveniment mic într-o coadă mărginită, cu
+ * offer(): dacă e plină, evenimentul se pierde (contorizat), dar /fire nu așteaptă niciodată.
+ * Un singur thread ("match-recorder") adună evenimentele pe meci și, la final, scrie meciul ca o
+ * linie NDJSON ({@link MatchRecord}) în fișierul curent ({@code matches-NNNNNNNN.ndjson}). Peste
+ * file-bytes trecem la un fișier nou; peste max-files le scoatem pe cele mai vechi din index și
+ * le ștergem de pe disc abia după delete-grace-ms. Un replay găsit chiar înainte poate fi încă trimis
+ * din el (sendfile-ul Tomcat deschide fișierul după ce controller-ul a răspuns).
+ *
+ * Loviturile le luăm la final din jurnalul jocului (sursa de adevăr); din evenimente vin doar
+ * momentele, deci un eveniment pierdut înseamnă doar un timestamp lipsă (-1), nu un replay greșit.
+ *
+ * Indexul gameId -> (fișier, offset, lungime) e în memorie și se reface la pornire din fișiere.
+ */
+@Service
+public class MatchRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchRecorder.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("matches-(\\d{8})\\.ndjson");
+
+    public static final String RESULT_FINISHED = "FINISHED";
+    public static final String RESULT_ABANDONED = "ABANDONED";
+
+    /** Unde e un meci: un interval dintr-un fișier, plus jucătorii (pentru verificarea accesului). */
+    public record Location(int file, long offset, int length, String player1Id, String player2Id) {}
+
+    /** Un fișier de export: numele, bytes scriși complet și ultima modificare. */
+    public record ReplayFile(String name, long bytes, long lastModified) {}
+
+    private record Started(String gameId, long at) {}
+    private record Shot(String gameId, int move, long at) {}
+    private record Ended(Game game, long[] moves, String result, String winnerId, long at) {}
+    private record Retired(int file, long deleteAtNanos) {}
+
+    // Starea unui meci în curs, doar pe thread-ul de scriere
+    private static final class OpenMatch {
+        long startedAt = -1;
+        long[] shotTimes = new long[32];
+    }
+
+    @Value("${battleboats.replay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${battleboats.replay.dir:./data/replays}")
+    private Path dir;
+
+    @Value("${battleboats.replay.file-bytes:16777216}")
+    private long fileBytes;
+
+    @Value("${battleboats.replay.max-files:20}")
+    private int maxFiles;
+
+    @Value("${battleboats.replay.queue:65536}")
+    private int queueSize;
+
+    @Value("${battleboats.replay.delete-grace-ms:60000}")
+    private long deleteGraceMs;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private BlockingQueue<Object> events;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final Map<String, OpenMatch> open = new HashMap<>();
+    // fișiere scoase din index, de șters după grace (doar pe thread-ul de scriere)
+    private final Deque<Retired> retired = new ArrayDeque<>();
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    // fișier -> bytes scriși complet (pentru fișierul curent crește pe măsură ce scriem)
+    private final NavigableMap<Integer, Long> files = new ConcurrentSkipListMap<>();
+
+    private int currentFile;
+    private FileChannel current;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) return;
+        Files.createDirectories(dir);
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : paths.toList()) {
+                Matcher m = FILE_NAME.matcher(path.getFileName().toString());
+                if (m.matches()) loadIndex(Integer.parseInt(m.group(1)), path);
+            }
+        }
+        events = new ArrayBlockingQueue<>(queueSize);
+        if (files.isEmpty()) {
+            openFile(1);
+        } else {
+            // continuăm ultimul fișier; o linie neterminată (oprire bruscă) se taie
+            currentFile = files.lastKey();
+            current = FileChannel.open(path(currentFile), StandardOpenOption.WRITE);
+            current.truncate(files.get(currentFile));
+        }
+
+        running = true;
+        writer = new Thread(this::run, "match-recorder");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Replay-uri in {} ({} meciuri indexate)", dir.toAbsolutePath(), index.size());
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (writer == null) return;
+        running = false;
+        writer.interrupt();
+        writer.join(5000);
+    }
+
+    // --- Evenimente (apelate sub monitorul jocului, deci doar offer) ---
+
+    public void started(Game game) {
+        if (enabled) offer(new Started(game.getId(), System.currentTimeMillis()));
+    }
+
+    // move = indexul loviturii în jurnalul jocului (getMoveCount() - 1 imediat după applyShot)
+    public void shot(Game game, int move) {
+        if (enabled) offer(new Shot(game.getId(), move, System.currentTimeMillis()));
+    }
+
+    // Jocul s-a terminat (câștigător sau forfeit); apelantul ține monitorul jocului
+    public void finished(Game game) {
+        if (enabled) offer(new Ended(game, game.copyMoves(), RESULT_FINISHED, game.getWinnerId(), System.currentTimeMillis()));
+    }
+
+    // Jocul a fost șters (/leave); dacă meciul nu se terminase, îl scriem ca abandonat
+    public void removed(Game game) {
+        if (!enabled) return;
+        long[] moves;
+        synchronized (game) {
+            if (!"ACTIVE".equals(game.getStatus())) return;
+            moves = game.copyMoves();
+        }
+        offer(new Ended(game, moves, RESULT_ABANDONED, null, System.currentTimeMillis()));
+    }
+
+    private void offer(Object event) {
+        if (!events.offer(event)) dropped.increment();
+    }
+
+    // --- Citire (replay / export) ---
+
+    public Location find(String gameId) {
+        return index.get(gameId);
+    }
+
+    public Path path(int file) {
+        return dir.resolve(String.format("matches-%08d.ndjson", file));
+    }
+
+    public List<ReplayFile> listFiles() {
+        List<ReplayFile> out = new ArrayList<>();
+        for (Map.Entry<Integer, Long> e : files.entrySet()) {
+            Path path = path(e.getKey());
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(path).toMillis();
+            } catch (IOException ex) {
+                continue; // șters de retenție între timp
+            }
+            out.add(new ReplayFile(path.getFileName().toString(), e.getValue(), modified));
+        }
+        return out;
+    }
+
+    // Numărul fișierului după nume, doar dacă îl știm (deci nu primim căi arbitrare de la client)
+    public Integer fileByName(String name) {
+        Matcher m = FILE_NAME.matcher(name);
+        if (!m.matches()) return null;
+        int file = Integer.parseInt(m.group(1));
+        return files.containsKey(file) ? file : null;
+    }
+
+    // Bytes scriși complet în fișier (liniile întregi); restul poate fi o linie în curs de scriere
+    public long committedBytes(int file) {
+        return files.getOrDefault(file, 0L);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public int getQueued() { return events == null ? 0 : events.size(); }
+    public long getRecorded() { return recorded.sum(); }
+    public long getDropped() { return dropped.sum(); }
+
+    // --- Thread-ul de scriere ---
+
+    private void run() {
+        while (running || !events.isEmpty()) {
+            Object event;
+            try {
+                event = events.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                if (running) continue;
+                event = events.poll(); // oprire: golim ce a rămas
+            }
+            deleteRetired(false);
+            if (event == null) continue;
+            try {
+                handle(event);
+            } catch (Exception e) {
+                logger.warn("Replay: eveniment ignorat: {}", e.getMessage());
+            }
+        }
+        deleteRetired(true); // serverul web e deja oprit, nu mai servim nimic din ele
+        try {
+            current.force(false);
+            current.close();
+        } catch (IOException e) {
+            logger.warn("Replay: nu pot inchide fisierul curent: {}", e.getMessage());
+        }
+    }
+
+    private void handle(Object event) throws IOException {
+        if (event instanceof Started s) {
+            open.computeIfAbsent(s.gameId(), k -> new OpenMatch()).startedAt = s.at();
+        } else if (event instanceof Shot s) {
+            OpenMatch match = open.computeIfAbsent(s.gameId(), k -> new OpenMatch());
+            if (s.move() >= match.shotTimes.length) {
+                match.shotTimes = Arrays.copyOf(match.shotTimes, Math.max(s.move() + 1, match.shotTimes.length * 2));
+            }
+            match.shotTimes[s.move()] = s.at();
+        } else if (event instanceof Ended e) {
+            String gameId = e.game().getId();
+            OpenMatch match = open.remove(gameId);
+            if (match == null && RESULT_ABANDONED.equals(e.result())) return; // n-a pornit niciodată
+            if (index.containsKey(gameId)) return; // deja scris (ex. /leave după final)
+            write(record(e, match == null ? new OpenMatch() : match));
+        }
+    }
+
+    private MatchRecord record(Ended e, OpenMatch match) {
+        Game game = e.game();
+        List<long[]> shots = new ArrayList<>(e.moves().length);
+        for (int i = 0; i < e.moves().length; i++) {
+            long move = e.moves()[i];
+            long at = i < match.shotTimes.length ? match.shotTimes[i] : 0;
+            long offset = at == 0 || match.startedAt < 0 ? -1 : at - match.startedAt;
+            shots.add(new long[]{offset, Game.moveAtPlayer1(move) ? 2 : 1, Game.moveCell(move), Game.moveHit(move) ? 1 : 0});
+        }
+        return new MatchRecord(
+                game.getId(), game.getPlayer1Id(), game.getPlayer2Id(), game.getBoardSize(),
+                e.result(), e.winnerId(), match.startedAt < 0 ? null : match.startedAt, e.at(),
+                game.getPlayer1Ships(), game.getPlayer2Ships(),
+                game.getPlayer1Board().occupiedCells(), game.getPlayer2Board().occupiedCells(),
+                shots);
+    }
+
+    private void write(MatchRecord record) throws IOException {
+        byte[] json = mapper.writeValueAsBytes(record);
+        long offset = files.get(currentFile);
+        if (offset > 0 && offset + json.length + 1 > fileBytes) {
+            roll();
+            offset = 0;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buf.hasRemaining()) current.write(buf, offset + buf.position());
+
+        index.put(record.gameId(), new Location(currentFile, offset, json.length, record.player1Id(), record.player2Id()));
+        files.put(currentFile, offset + json.length + 1);
+        recorded.increment();
+    }
+
+    private void roll() throws IOException {
+        current.force(false);
+        current.close();
+        openFile(currentFile + 1);
+
+        while (files.size() > maxFiles) {
+            int oldest = files.pollFirstEntry().getKey();
+            index.values().removeIf(location -> location.file() == oldest);
+            retired.add(new Retired(oldest, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deleteGraceMs)));
+        }
+    }
+
+    private void deleteRetired(boolean all) {
+        long now = System.nanoTime();
+        while (!retired.isEmpty() && (all || now - retired.peekFirst().deleteAtNanos() >= 0)) {
+            int file = retired.pollFirst().file();
+            try {
+                Files.deleteIfExists(path(file));
+            } catch (IOException e) {
+                logger.warn("Replay: nu pot sterge {}: {}", path(file).getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private void openFile(int file) throws IOException {
+        currentFile = file;
+        current = FileChannel.open(path(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        files.put(file, 0L);
+    }
+
+    // O linie = un meci; citim doar primele trei câmpuri (gameId, player1Id, player2Id).
+    // O ultimă linie fără '\n' (oprire bruscă) e ignorată.
+    private void loadIndex(int file, Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') continue;
+            try (JsonParser parser = mapper.getFactory().createParser(bytes, start, i - start)) {
+                String[] ids = new String[3];
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    for (int f = 0; f < 3 && parser.nextToken() == JsonToken.FIELD_NAME; f++) {
+                        parser.nextToken();
+                        ids[f] = parser.getValueAsString();
+                    }
+                }
+                if (ids[0] != null) index.put(ids[0], new Location(file, start, i - start, ids[1], ids[2]));
+            } catch (IOException e) {
+                logger.warn("Replay: linie corupta in {} la offset {}", path.getFileName(), start);
+            }
+            start = i + 1;
+        }
+        files.put(file, (long) start);
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Matchmaking fără lock global: jucătorii care așteaptă stau în mai multe cozi lock-free
+ * (ConcurrentLinkedQueue), iar împerecherea se face printr-un CAS pe starea ticket-ului.
+ *
+ * Cine intră caută întâi un adversar în toate cozile (începând cu una aleatoare, ca thread-urile
+ * să nu se bată pe același cap de coadă); dacă nu găsește, își creează jocul și intră la coadă.
+ * Fiecare mărime de tablă are propriul set de cozi, deci se împerechează doar jucători cu aceeași tablă.
+ */
+@Service
+public class MatchmakingService {
+
+    public static final String ROLE_PLAYER1 = "PLAYER1";
+    public static final String ROLE_PLAYER2 = "PLAYER2";
+
+    private static final int WAITING = 0;
+    private static final int MATCHED = 1;
+    private static final int CANCELLED = 2;
+    private static final int STARTED = 3;
+
+    /**
+     * WAITING -> MATCHED (revendicat de cineva care încearcă să pornească jocul) -> STARTED dacă
+     * jocul a pornit, CANCELLED dacă a dispărut între timp, sau înapoi la WAITING prin {@link #requeue}.
+     * MATCHED e deci doar o stare de trecere, pe care un /join al aceluiași user o așteaptă.
+     */
+    static final class Ticket {
+        final String userId;
+        final Game game;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final long queuedAtNanos = System.nanoTime();
+        // cancel() venit cât ticket-ul era MATCHED (CAS-ul lui eșuează): cine îl pune înapoi la coadă îl anulează
+        volatile boolean cancelRequested;
+
+        Ticket(String userId, Game game) {
+            this.userId = userId;
+            this.game = game;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(WAITING, MATCHED);
+        }
+    }
+
+    public record JoinResult(Game game, String role) {}
+
+    @Autowired
+    private GameRegistry registry;
+
+    @Autowired
+    private GameUpdateNotifier updateNotifier;
+
+    @Autowired
+    private GameJournal journal;
+
+    @Autowired
+    private MatchRecorder recorder;
+
+    @Autowired
+    private GameMetrics metrics;
+
+    private final int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+    private final Map<Integer, Queue<Ticket>[]> stripesBySize = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> waitingByUser = new ConcurrentHashMap<>();
+
+    public JoinResult join(String userId, List<ShipController.ShipPlacement> ships, Board board) {
+        Queue<Ticket>[] stripes = stripesFor(board.getSize());
+        while (true) {
+            // Evităm să joci singur cu tine însuți: dacă deja aștepți (pe aceeași tablă), primești același joc
+            Ticket existing = waitingByUser.get(userId);
+            if (existing != null && existing.state.get() == WAITING && registry.contains(existing.game)
+                    && existing.game.getBoardSize() == board.getSize()) {
+                return new JoinResult(existing.game, ROLE_PLAYER1);
+            }
+            // așteaptă pe altă tablă: renunțăm la jocul ăla înainte să-l suprascriem în waitingByUser,
+            // altfel ar putea fi Player 1 în două jocuri
+            if (existing != null && !cancel(existing)) {
+                // ticket-ul vechi e chiar acum împerecheat: așteptăm să se decidă (doar câteva instrucțiuni)
+                int state;
+                while ((state = existing.state.get()) == MATCHED) Thread.onSpinWait();
+                // jocul vechi a pornit => ăla e jocul lui; altfel (înapoi la coadă sau anulat) reluăm
+                if (state == STARTED) return new JoinResult(existing.game, ROLE_PLAYER1);
+                continue;
+            }
+            if (existing != null) drop(existing);
+
+            // Dacă e cineva în așteptare, intră peste el (devii Player 2)
+            Ticket opponent = claimOpponent(stripes, userId);
+            if (opponent != null) {
+                if (startGame(opponent, userId, ships, board)) return new JoinResult(opponent.game, ROLE_PLAYER2);
+                continue; // adversarul a plecat între timp, mai căutăm
+            }
+
+            // Nu e nimeni, creează joc nou (ești Player 1)
+            Game game = new Game(UUID.randomUUID().toString(), userId);
+            game.setPlayer1Ships(ships);
+            game.setPlayer1Board(board);
+            registry.put(game);
+            journal.append(journal.created(game));
+
+            Ticket mine = new Ticket(userId, game);
+            waitingByUser.put(userId, mine);
+            homeStripe(stripes).offer(mine);
+
+            // Doi jucători pot intra simultan pe cozi goale și ar aștepta amândoi; mai verificăm o dată
+            opponent = claimOpponent(stripes, userId);
+            if (opponent == null) return new JoinResult(game, ROLE_PLAYER1);
+
+            if (mine.claim()) {
+                // ne retragem propriul joc și intrăm noi peste adversar
+                mine.state.set(CANCELLED);
+                waitingByUser.remove(userId, mine);
+                registry.remove(game.getId());
+                journal.removed(game.getId());
+                if (startGame(opponent, userId, ships, board)) return new JoinResult(opponent.game, ROLE_PLAYER2);
+                continue;
+            }
+
+            // altcineva ne-a luat deja ca adversar => eliberăm ticket-ul luat mai sus
+            requeue(opponent, stripes);
+            return new JoinResult(game, ROLE_PLAYER1);
+        }
+    }
+
+    // Scoate din așteptare jocul dat (la /leave); un ticket deja împerecheat nu mai poate fi anulat
+    public void cancel(String userId, String gameId) {
+        Ticket ticket = waitingByUser.get(userId);
+        if (ticket != null && ticket.game.getId().equals(gameId)) cancel(ticket);
+    }
+
+    /**
+     * WAITING -> CANCELLED. Dacă ticket-ul e chiar acum MATCHED, lăsăm cererea: dacă împerecherea
+     * eșuează și ticket-ul ajunge înapoi la WAITING, {@link #requeue} îl anulează în loc să-l pună la coadă.
+     */
+    private boolean cancel(Ticket ticket) {
+        ticket.cancelRequested = true;
+        if (!ticket.state.compareAndSet(WAITING, CANCELLED)) return false;
+        waitingByUser.remove(ticket.userId, ticket);
+        return true;
+    }
+
+    // Pune la loc un ticket revendicat dar neîmperecheat (sau îl anulează, dacă între timp s-a cerut asta)
+    private void requeue(Ticket ticket, Queue<Ticket>[] stripes) {
+        ticket.state.set(WAITING);
+        if (ticket.cancelRequested) {
+            if (cancel(ticket)) drop(ticket);
+            return;
+        }
+        homeStripe(stripes).offer(ticket);
+    }
+
+    // Jocul unui ticket anulat nu mai poate porni: îl scoatem și din memorie și din jurnal
+    private void drop(Ticket ticket) {
+        String gameId = ticket.game.getId();
+        if (registry.remove(gameId) != null) {
+            journal.removed(gameId);
+            updateNotifier.publish(gameId, null);
+        }
+    }
+
+    // Pune înapoi la coadă un joc WAITING refăcut din jurnal după restart
+    public void restore(Game game) {
+        Ticket ticket = new Ticket(game.getPlayer1Id(), game);
+        waitingByUser.put(ticket.userId, ticket);
+        homeStripe(stripesFor(game.getBoardSize())).offer(ticket);
+    }
+
+    public int getWaitingCount() {
+        return waitingByUser.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Queue<Ticket>[] stripesFor(int boardSize) {
+        return stripesBySize.computeIfAbsent(boardSize, size -> {
+            Queue<Ticket>[] stripes = new Queue[stripeCount];
+            for (int i = 0; i < stripeCount; i++) stripes[i] = new ConcurrentLinkedQueue<>();
+            return stripes;
+        });
+    }
+
+    private Ticket claimOpponent(Queue<Ticket>[] stripes, String userId) {
+        int start = ThreadLocalRandom.current().nextInt(stripes.length);
+        List<Ticket> own = null;
+        try {
+            for (int i = 0; i < stripes.length; i++) {
+                Queue<Ticket> queue = stripes[(start + i) & (stripes.length - 1)];
+                Ticket t;
+                while ((t = queue.poll()) != null) {
+                    if (t.state.get() != WAITING) continue; // anulat sau deja împerecheat: îl aruncăm
+                    if (t.userId.equals(userId)) {
+                        if (own == null) own = new ArrayList<>(1);
+                        own.add(t);
+                        continue;
+                    }
+                    if (t.claim()) return t; // rămâne în waitingByUser până pornește jocul (vezi cancel)
+                }
+            }
+            return null;
+        } finally {
+            if (own != null) own.forEach(t -> homeStripe(stripes).offer(t));
+        }
+    }
+
+    private boolean startGame(Ticket opponent, String userId, List<ShipController.ShipPlacement> ships, Board board) {
+        Game game = opponent.game;
+        byte[] journalRecord;
+        synchronized (game) {
+            waitingByUser.remove(opponent.userId, opponent);
+            if (!registry.contains(game)) {
+                opponent.state.set(CANCELLED);
+                return false;
+            }
+
+            game.setPlayer2Id(userId);
+            game.setPlayer2Ships(ships);
+            game.setPlayer2Board(board);
+            game.setStatus("ACTIVE");
+            game.setStartedAtMillis(System.currentTimeMillis());
+            game.touch();
+            journalRecord = journal.matched(game);
+            recorder.started(game);
+            opponent.state.set(STARTED);
+        }
+        journal.append(journalRecord);
+        metrics.matchmakingWait(System.nanoTime() - opponent.queuedAtNanos);
+        updateNotifier.publish(game.getId(), game);
+        return true;
+    }
+
+    private static Queue<Ticket> homeStripe(Queue<Ticket>[] stripes) {
+        return stripes[ThreadLocalRandom.current().nextInt(stripes.length)];
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.battleboats.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt (encode la register, matches la login) pe un pool separat și mărginit.
+ *
+ * Un hash costă ~100 ms de CPU; rulat pe thread-ul servlet, un val de login-uri (ex. după un
+ * deploy) ocupă tot pool-ul Tomcat și blochează traficul de joc. Aici avem un număr fix de
+ * thread-uri (implicit jumătate din nuclee, restul rămân pentru joc) și o coadă mică: când e
+ * plină, cererea e respinsă imediat cu {@link BusyException} (503), nu așteaptă la nesfârșit.
+ * La fel pentru o cerere care a stat în coadă mai mult de hash-max-wait-ms: clientul probabil a
+ * renunțat deja, deci nu mai ardem CPU pe ea.
+ */
+@Service
+public class PasswordHasher {
+
+    public static class BusyException extends RuntimeException {
+        public BusyException() {
+            super("Serverul e ocupat, încearcă din nou peste câteva secunde.");
+        }
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${battleboats.auth.hash-threads:0}") int threads,
+                          @Value("${battleboats.auth.hash-queue:64}") int queueSize,
+                          @Value("${battleboats.auth.hash-max-wait-ms:10000}") long maxWaitMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        int n = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger ids = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+            Thread t = new Thread(r, "password-hash-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (System.nanoTime() - queuedAt > maxWaitNanos) {
+                    rejected.increment();
+                    throw new BusyException();
+                }
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new BusyException());
+        }
+    }
+
+    public int getQueued() { return executor.getQueue().size(); }
+    public int getActive() { return executor.getActiveCount(); }
+    public long getRejected() { return rejected.sum(); }
+}
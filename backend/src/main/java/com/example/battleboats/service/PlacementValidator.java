@@ -0,0 +1,229 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Ship;
+import com.example.battleboats.reprository.ShipRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Validează așezarea flotei la /join.
+ *
+ * Fiecare navă e un dreptunghi (1 x lungime sau lungime x 1) pe bitboard-ul {@link Board}:
+ * suprapunerea și regula de neatingere sunt câte un AND pe cuvânt pentru fiecare rând atins
+ * (pentru neatingere testăm dreptunghiul lărgit cu o celulă în toate direcțiile). Merge la fel
+ * pentru orice mărime de tablă, fără tabele precalculate, și nu alocă nimic în afară de Board
+ * și un contor mic pe tip de navă.
+ *
+ * Catalogul (id navă -> lungime) vine din {@link ShipRepository}; dacă tabela e goală sau nu
+ * există, folosim flota implicită din game.js (4x1, 3x2, 2x3, 1x4, id-uri 1..10).
+ * Pe 10x10 flota trimisă conține fiecare navă din catalog exact o dată; pe table mai mari
+ * fiecare navă apare de (size² / 100) ori, ca densitatea flotei să rămână aceeași.
+ */
+@Service
+public class PlacementValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlacementValidator.class);
+
+    private static final long[] DEFAULT_IDS = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+    private static final int[] DEFAULT_SIZES = {1, 1, 1, 1, 2, 2, 2, 3, 3, 4};
+
+    public record Result(Board board, String error) {
+        public boolean isValid() { return error == null; }
+    }
+
+    /** O navă din catalog și de câte ori trebuie așezată pe tabla cerută (vezi /api/game/fleet). */
+    public record FleetShip(long shipId, int size, int copies) {}
+
+    @Autowired
+    private ShipRepository shipRepository;
+
+    // true = navele au voie să se atingă (cum verifică și clientul, doar suprapunerea)
+    @Value("${battleboats.placement.allow-touching:true}")
+    private boolean allowTouching;
+
+    // Cea mai mare tablă acceptată la /join (Board.MAX_SIZE = 64 e limita tehnică)
+    @Value("${battleboats.board.max-size:64}")
+    private int maxBoardSize;
+
+    private Map<Long, Integer> slotById = Map.of(); // id navă -> index în catalog
+    private int[] sizeBySlot = new int[0];
+
+    @PostConstruct
+    void init() {
+        List<Ship> catalog = List.of();
+        try {
+            catalog = shipRepository.findAll();
+        } catch (RuntimeException e) {
+            logger.warn("Nu am putut citi catalogul de nave, folosim flota implicita: {}", e.getMessage());
+        }
+
+        if (catalog.isEmpty()) {
+            setCatalog(DEFAULT_IDS, DEFAULT_SIZES);
+        } else {
+            long[] ids = new long[catalog.size()];
+            int[] sizes = new int[catalog.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = catalog.get(i).getId();
+                sizes[i] = catalog.get(i).getSize();
+            }
+            setCatalog(ids, sizes);
+        }
+        logger.info("Validator plasare: {} nave in catalog, allowTouching={}", sizeBySlot.length, allowTouching);
+    }
+
+    private void setCatalog(long[] ids, int[] sizes) {
+        Map<Long, Integer> slots = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (sizes[i] < 1 || sizes[i] > Board.MIN_SIZE) throw new IllegalStateException("Lungime invalida pentru nava " + ids[i]);
+            slots.put(ids[i], i);
+        }
+        this.slotById = Map.copyOf(slots);
+        this.sizeBySlot = sizes.clone();
+    }
+
+    // De câte ori apare fiecare navă din catalog pe o tablă de mărimea dată
+    public static int copiesPerShip(int boardSize) {
+        return Math.max(1, boardSize * boardSize / Board.CELLS);
+    }
+
+    public boolean isAllowTouching() {
+        return allowTouching;
+    }
+
+    public int getMaxBoardSize() {
+        return Math.min(maxBoardSize, Board.MAX_SIZE);
+    }
+
+    public boolean isAllowedSize(int boardSize) {
+        return Board.isValidSize(boardSize) && boardSize <= maxBoardSize;
+    }
+
+    // Flota pe care /join o acceptă pe tabla dată, în ordinea din catalog
+    public List<FleetShip> fleet(int boardSize) {
+        Long[] ids = new Long[sizeBySlot.length];
+        slotById.forEach((id, slot) -> ids[slot] = id);
+        int copies = copiesPerShip(boardSize);
+        List<FleetShip> fleet = new ArrayList<>(ids.length);
+        for (int slot = 0; slot < ids.length; slot++) fleet.add(new FleetShip(ids[slot], sizeBySlot[slot], copies));
+        return fleet;
+    }
+
+    // Câte nave din fiecare lungime are flota pe tabla dată (index = lungime)
+    public int[] fleetLengths(int boardSize) {
+        int[] counts = new int[Board.MIN_SIZE + 1];
+        for (int len : sizeBySlot) counts[len] += copiesPerShip(boardSize);
+        return counts;
+    }
+
+    /** O flotă aleatoare validă (pentru bot). */
+    public Result randomFleet(int boardSize, Random random) {
+        List<ShipController.ShipPlacement> ships = randomPlacements(boardSize, random);
+        if (ships == null) return invalid("Nu am putut genera o flotă pentru botul de pe tabla " + boardSize);
+        return validate(ships, boardSize);
+    }
+
+    /**
+     * Așezarea aleatoare a flotei, în formatul trimis la /join. Punem întâi navele lungi; dacă ne
+     * blocăm (tablă prea plină pentru regula de neatingere) o luăm de la capăt. null dacă nu reușim.
+     */
+    public List<ShipController.ShipPlacement> randomPlacements(int boardSize, Random random) {
+        Integer[] slots = new Integer[sizeBySlot.length];
+        for (int i = 0; i < slots.length; i++) slots[i] = i;
+        Arrays.sort(slots, (a, b) -> Integer.compare(sizeBySlot[b], sizeBySlot[a]));
+        Long[] ids = new Long[sizeBySlot.length];
+        slotById.forEach((id, slot) -> ids[slot] = id);
+
+        int copies = copiesPerShip(boardSize);
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Board board = new Board(boardSize);
+            List<ShipController.ShipPlacement> ships = new ArrayList<>(copies * slots.length);
+            boolean stuck = false;
+            for (int slot : slots) {
+                for (int c = 0; c < copies && !stuck; c++) {
+                    ShipController.ShipPlacement p = placeRandomly(board, ids[slot], sizeBySlot[slot], random);
+                    if (p == null) stuck = true;
+                    else ships.add(p);
+                }
+            }
+            if (!stuck) return ships;
+        }
+        return null;
+    }
+
+    private ShipController.ShipPlacement placeRandomly(Board board, Long shipId, int length, Random random) {
+        int size = board.getSize();
+        for (int tries = 0; tries < 1000; tries++) {
+            boolean horizontal = random.nextBoolean();
+            int height = horizontal ? 1 : length, width = horizontal ? length : 1;
+            int row = random.nextInt(size - height + 1), col = random.nextInt(size - width + 1);
+            boolean blocked = allowTouching
+                    ? board.anyOccupied(row, col, height, width)
+                    : board.anyOccupied(row - 1, col - 1, height + 2, width + 2);
+            if (blocked) continue;
+
+            board.occupyRect(row, col, height, width);
+            ShipController.ShipPlacement p = new ShipController.ShipPlacement();
+            p.shipId = shipId;
+            p.isHorizontal = horizontal;
+            p.startCellIndex = row * size + col;
+            return p;
+        }
+        return null;
+    }
+
+    public Result validate(List<ShipController.ShipPlacement> ships) {
+        return validate(ships, Board.GRID_SIZE);
+    }
+
+    public Result validate(List<ShipController.ShipPlacement> ships, int boardSize) {
+        if (!isAllowedSize(boardSize)) return invalid("Dimensiune tablă invalidă!");
+        if (ships == null || ships.isEmpty()) return invalid("Flotă lipsă!");
+
+        int copies = copiesPerShip(boardSize);
+        if (ships.size() != copies * sizeBySlot.length) return invalid("Flotă incompletă!");
+
+        Board board = new Board(boardSize);
+        int[] placed = new int[sizeBySlot.length];
+
+        for (ShipController.ShipPlacement p : ships) {
+            if (p == null || p.shipId == null) return invalid("Navă invalidă!");
+
+            Integer slot = slotById.get(p.shipId);
+            if (slot == null) return invalid("Navă necunoscută: " + p.shipId);
+            if (++placed[slot] > copies) return invalid("Navă duplicată: " + p.shipId);
+
+            if (!board.contains(p.startCellIndex)) return invalid("Navă în afara tablei: " + p.shipId);
+            int row = p.startCellIndex / boardSize, col = p.startCellIndex % boardSize;
+            int height = p.isHorizontal ? 1 : sizeBySlot[slot];
+            int width = p.isHorizontal ? sizeBySlot[slot] : 1;
+            if (row + height > boardSize || col + width > boardSize) return invalid("Navă în afara tablei: " + p.shipId);
+
+            if (allowTouching) {
+                if (board.anyOccupied(row, col, height, width)) return invalid("Nave suprapuse!");
+            } else if (board.anyOccupied(row - 1, col - 1, height + 2, width + 2)) {
+                return invalid("Navele nu au voie să se atingă!");
+            }
+            board.occupyRect(row, col, height, width);
+        }
+
+        // numărul total e corect și nicio navă nu depășește `copies`, deci fiecare apare exact de `copies` ori
+        return new Result(board, null);
+    }
+
+    private static Result invalid(String error) {
+        return new Result(null, error);
+    }
+}
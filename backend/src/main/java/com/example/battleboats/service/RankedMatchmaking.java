@@ -0,0 +1,307 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.controller.ShipController;
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Matchmaking ranked: jucătorii sunt împerecheați după rating ({@link RatingService}).
+ *
+ * Cei care așteaptă stau într-un ConcurrentSkipListMap per mărime de tablă, sortat după rating, deci
+ * adversarul cel mai apropiat se găsește în O(log n) (floor/ceiling din jurul rating-ului propriu),
+ * oricâți ar aștepta. Diferența acceptată crește cu timpul de așteptare (window-base + window-per-second
+ * pe secundă, până la window-max); o pereche e bună dacă încape în fereastra oricăruia dintre ei.
+ * Cine intră caută imediat; în plus, un job parcurge periodic lista sortată și împerechează vecinii
+ * ale căror ferestre s-au lărgit între timp. Împerecherea e un CAS pe starea ticket-ului, ca în
+ * {@link MatchmakingService}.
+ *
+ * Jocul se creează abia la împerechere, deci /join?ranked=true e un long-poll: răspunde cu
+ * gameId/role când s-a găsit adversar, sau 204 la timeout, iar clientul reîntreabă. Ticket-ul (și
+ * vechimea lui la coadă) rămâne cât timp clientul revine în grace-ms.
+ */
+@Service
+public class RankedMatchmaking {
+
+    private static final int WAITING = 0;
+    private static final int MATCHED = 1;
+    private static final int CANCELLED = 2;
+
+    private static final class Ticket {
+        final String userId;
+        final int rating;
+        final long key;
+        final long queuedAtNanos = System.nanoTime();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+
+        // un jucător care revine poate avea alt aranjament de nave; îl luăm pe ultimul
+        volatile List<ShipController.ShipPlacement> ships;
+        volatile Board board;
+
+        volatile DeferredResult<ResponseEntity<Map<String, String>>> waiter;
+        volatile Map<String, String> result;
+        volatile long lastSeenNanos = System.nanoTime();
+        // cancel venit cât ticket-ul era MATCHED pentru o încercare de împerechere: requeue îl anulează
+        volatile boolean cancelRequested;
+
+        Ticket(String userId, int rating, long key, List<ShipController.ShipPlacement> ships, Board board) {
+            this.userId = userId;
+            this.rating = rating;
+            this.key = key;
+            this.ships = ships;
+            this.board = board;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(WAITING, MATCHED);
+        }
+    }
+
+    @Autowired
+    private GameRegistry registry;
+
+    @Autowired
+    private GameUpdateNotifier updateNotifier;
+
+    @Autowired
+    private GameJournal journal;
+
+    @Autowired
+    private MatchRecorder recorder;
+
+    @Autowired
+    private RatingService ratings;
+
+    @Autowired
+    private GameMetrics metrics;
+
+    @Value("${battleboats.ranked.window-base:50}")
+    private int windowBase;
+
+    @Value("${battleboats.ranked.window-per-second:25}")
+    private int windowPerSecond;
+
+    @Value("${battleboats.ranked.window-max:400}")
+    private int windowMax;
+
+    @Value("${battleboats.ranked.poll-timeout-ms:20000}")
+    private long pollTimeoutMs;
+
+    @Value("${battleboats.ranked.grace-ms:10000}")
+    private long graceMs;
+
+    // cheia = rating în biții de sus + un număr de ordine, ca doi jucători cu același rating să nu se suprapună
+    private final Map<Integer, ConcurrentSkipListMap<Long, Ticket>> queues = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> waitingByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public DeferredResult<ResponseEntity<Map<String, String>>> join(String userId, List<ShipController.ShipPlacement> ships, Board board) {
+        DeferredResult<ResponseEntity<Map<String, String>>> result =
+                new DeferredResult<>(pollTimeoutMs, ResponseEntity.noContent().build());
+
+        Ticket ticket = waitingByUser.get(userId);
+        if (ticket != null && ticket.state.get() == WAITING && ticket.board.getSize() != board.getSize()) {
+            cancel(ticket); // a ales altă tablă: reintră la coada ei
+            ticket = null;
+        }
+
+        if (ticket == null || ticket.state.get() == CANCELLED) {
+            int rating = ratings.ratingOf(Long.parseLong(userId));
+            long key = ((long) Math.max(rating, 0) << 32) | (sequence.getAndIncrement() & 0xFFFFFFFFL);
+            ticket = new Ticket(userId, rating, key, ships, board);
+            waitingByUser.put(userId, ticket);
+
+            ConcurrentSkipListMap<Long, Ticket> queue = queueFor(board.getSize());
+            Ticket opponent = claimNearest(queue, ticket);
+            if (opponent != null) {
+                // nu e în coadă, dar e deja în waitingByUser: un /join/cancel l-ar fi putut anula între timp
+                if (ticket.claim()) pair(queue, opponent, ticket);
+                else requeue(opponent);
+            } else {
+                queue.put(ticket.key, ticket);
+                if (ticket.state.get() == CANCELLED) queue.remove(ticket.key, ticket); // cancel venit înainte de put
+            }
+        } else {
+            ticket.ships = ships;
+            ticket.board = board;
+        }
+
+        // jucătorul a anulat chiar în timpul cererii: o încheiem acum, fără joc
+        if (ticket.state.get() == CANCELLED) {
+            result.setResult(ResponseEntity.noContent().build());
+            return result;
+        }
+        attach(ticket, result);
+        return result;
+    }
+
+    // Jucătorul a renunțat la căutare (butonul "Anulează" sau a părăsit pagina)
+    public void cancel(String userId) {
+        Ticket ticket = waitingByUser.get(userId);
+        if (ticket != null) cancel(ticket);
+    }
+
+    private void cancel(Ticket ticket) {
+        ticket.cancelRequested = true;
+        if (ticket.state.compareAndSet(WAITING, CANCELLED)) {
+            waitingByUser.remove(ticket.userId, ticket);
+            queueFor(ticket.board.getSize()).remove(ticket.key, ticket);
+        }
+    }
+
+    /**
+     * Lărgirea ferestrelor: vecinii din lista sortată sunt cei mai apropiați ca rating, deci e
+     * suficient să verificăm perechile alăturate. Tot aici scoatem ticket-urile abandonate
+     * (niciun /join în așteptare de mai mult de grace-ms).
+     */
+    @Scheduled(fixedDelayString = "${battleboats.ranked.sweep-ms:250}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (ConcurrentSkipListMap<Long, Ticket> queue : queues.values()) {
+            Ticket previous = null;
+            for (Ticket ticket : queue.values()) {
+                if (ticket.state.get() != WAITING) {
+                    queue.remove(ticket.key, ticket);
+                    continue;
+                }
+                if (ticket.waiter == null && now - ticket.lastSeenNanos > TimeUnit.MILLISECONDS.toNanos(graceMs)) {
+                    cancel(ticket);
+                    continue;
+                }
+                if (previous != null && acceptable(previous, ticket, now) && previous.claim()) {
+                    if (ticket.claim()) {
+                        pair(queue, previous, ticket);
+                        previous = null;
+                        continue;
+                    }
+                    requeue(previous); // ticket-ul a fost luat între timp de un /join
+                }
+                previous = ticket;
+            }
+        }
+
+        // rezultate pe care clientul nu a mai venit să le ia
+        waitingByUser.values().removeIf(t -> t.state.get() == MATCHED && t.waiter == null
+                && now - t.lastSeenNanos > TimeUnit.MILLISECONDS.toNanos(graceMs));
+    }
+
+    // Un ticket revendicat dar neîmperecheat revine la coadă (era deja în ea), sau e anulat dacă s-a cerut între timp
+    private void requeue(Ticket ticket) {
+        ticket.state.set(WAITING);
+        if (ticket.cancelRequested) cancel(ticket);
+    }
+
+    public int getWaitingCount() {
+        int n = 0;
+        for (ConcurrentSkipListMap<Long, Ticket> queue : queues.values()) n += queue.size();
+        return n;
+    }
+
+    private ConcurrentSkipListMap<Long, Ticket> queueFor(int boardSize) {
+        return queues.computeIfAbsent(boardSize, size -> new ConcurrentSkipListMap<>());
+    }
+
+    // Cel mai apropiat ca rating care ne acceptă: pornim din poziția noastră și mergem în ambele sensuri
+    private Ticket claimNearest(ConcurrentSkipListMap<Long, Ticket> queue, Ticket ticket) {
+        long now = System.nanoTime();
+        Iterator<Ticket> lower = queue.headMap(ticket.key, false).descendingMap().values().iterator();
+        Iterator<Ticket> higher = queue.tailMap(ticket.key, false).values().iterator();
+        Ticket below = lower.hasNext() ? lower.next() : null;
+        Ticket above = higher.hasNext() ? higher.next() : null;
+
+        while (below != null || above != null) {
+            boolean takeBelow = above == null || (below != null && gap(below, ticket) <= gap(above, ticket));
+            Ticket candidate = takeBelow ? below : above;
+            if (gap(candidate, ticket) > windowMax) return null; // și restul sunt mai departe
+
+            if (candidate.state.get() == WAITING && !candidate.userId.equals(ticket.userId)
+                    && acceptable(candidate, ticket, now) && candidate.claim()) {
+                return candidate;
+            }
+            if (takeBelow) below = lower.hasNext() ? lower.next() : null;
+            else above = higher.hasNext() ? higher.next() : null;
+        }
+        return null;
+    }
+
+    private boolean acceptable(Ticket a, Ticket b, long now) {
+        return gap(a, b) <= Math.max(window(a, now), window(b, now));
+    }
+
+    private int window(Ticket ticket, long now) {
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(now - ticket.queuedAtNanos);
+        return (int) Math.min(windowMax, windowBase + windowPerSecond * waitedMs / 1000);
+    }
+
+    private static int gap(Ticket a, Ticket b) {
+        return Math.abs(a.rating - b.rating);
+    }
+
+    // Ambele ticket-uri sunt deja MATCHED; cine a așteptat mai mult e Player 1
+    private void pair(ConcurrentSkipListMap<Long, Ticket> queue, Ticket a, Ticket b) {
+        Ticket first = a.queuedAtNanos <= b.queuedAtNanos ? a : b;
+        Ticket second = first == a ? b : a;
+        queue.remove(first.key, first);
+        queue.remove(second.key, second);
+
+        Game game = new Game(UUID.randomUUID().toString(), first.userId);
+
+        byte[] created, matched;
+        synchronized (game) {
+            game.setPlayer1Ships(first.ships);
+            game.setPlayer1Board(first.board);
+            registry.put(game);
+            created = journal.created(game);
+
+            game.setPlayer2Id(second.userId);
+            game.setPlayer2Ships(second.ships);
+            game.setPlayer2Board(second.board);
+            game.setStatus("ACTIVE");
+            game.setStartedAtMillis(System.currentTimeMillis());
+            game.touch();
+            matched = journal.matched(game);
+            recorder.started(game);
+        }
+        journal.append(created);
+        journal.append(matched);
+        metrics.rankedMatch(System.nanoTime() - first.queuedAtNanos, gap(first, second));
+        updateNotifier.publish(game.getId(), game);
+
+        first.result = Map.of("gameId", game.getId(), "role", MatchmakingService.ROLE_PLAYER1);
+        second.result = Map.of("gameId", game.getId(), "role", MatchmakingService.ROLE_PLAYER2);
+        deliver(first);
+        deliver(second);
+    }
+
+    private void attach(Ticket ticket, DeferredResult<ResponseEntity<Map<String, String>>> result) {
+        ticket.waiter = result;
+        ticket.lastSeenNanos = System.nanoTime();
+        result.onCompletion(() -> {
+            if (ticket.waiter == result) ticket.waiter = null;
+            ticket.lastSeenNanos = System.nanoTime();
+        });
+        if (ticket.result != null) deliver(ticket);
+    }
+
+    // result și waiter sunt volatile și scrise în ordine inversă de pair/attach, deci cel puțin unul îl livrează
+    private void deliver(Ticket ticket) {
+        DeferredResult<ResponseEntity<Map<String, String>>> waiter = ticket.waiter;
+        if (waiter != null && waiter.setResult(ResponseEntity.ok(ticket.result))) {
+            waitingByUser.remove(ticket.userId, ticket);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.battleboats.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitarea request-urilor de joc, per user (sau per IP, pe /status/poll care nu are token) și per endpoint.
+ *
+ * Fiecare cheie are un token bucket: per-second tokenuri pe secundă, cel mult burst adunate.
+ * Bucket-ul nu ține tokenuri și timestamp separat, ci un singur long: momentul (System.nanoTime)
+ * la care bucket-ul ar fi din nou plin (GCRA, echivalent cu token bucket). Un request îl mută cu un
+ * interval mai încolo; e acceptat dacă nu depășește "acum + burst intervale". Actualizarea e un CAS,
+ * fără lock-uri, deci pe drumul fierbinte avem un get din ConcurrentHashMap, un nanoTime și un CAS.
+ *
+ * O intrare al cărei moment a trecut e un bucket plin, la fel ca o cheie lipsă, deci o putem
+ * scoate fără să pierdem nimic: sweep-ul periodic șterge cheile inactive. Peste max-keys chei per
+ * endpoint nu mai adăugăm altele (request-ul trece nelimitat și e numărat la untracked).
+ */
+@Service
+public class RateLimiter {
+
+    public enum Endpoint { JOIN, FIRE, STATUS, POLL }
+
+    private static final class Limit {
+        final long intervalNanos;
+        final long burstNanos;
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        Limit(double perSecond, int burst) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+            this.burstNanos = intervalNanos * Math.max(burst, 1);
+        }
+    }
+
+    @Autowired
+    private GameMetrics metrics;
+
+    @Value("${battleboats.ratelimit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${battleboats.ratelimit.join.per-second:2}")
+    private double joinPerSecond;
+
+    @Value("${battleboats.ratelimit.join.burst:10}")
+    private int joinBurst;
+
+    @Value("${battleboats.ratelimit.fire.per-second:10}")
+    private double firePerSecond;
+
+    @Value("${battleboats.ratelimit.fire.burst:20}")
+    private int fireBurst;
+
+    @Value("${battleboats.ratelimit.status.per-second:10}")
+    private double statusPerSecond;
+
+    @Value("${battleboats.ratelimit.status.burst:30}")
+    private int statusBurst;
+
+    @Value("${battleboats.ratelimit.poll.per-second:20}")
+    private double pollPerSecond;
+
+    @Value("${battleboats.ratelimit.poll.burst:50}")
+    private int pollBurst;
+
+    private final Limit[] limits = new Limit[Endpoint.values().length];
+    private final LongAdder untracked = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        limits[Endpoint.JOIN.ordinal()] = new Limit(joinPerSecond, joinBurst);
+        limits[Endpoint.FIRE.ordinal()] = new Limit(firePerSecond, fireBurst);
+        limits[Endpoint.STATUS.ordinal()] = new Limit(statusPerSecond, statusBurst);
+        limits[Endpoint.POLL.ordinal()] = new Limit(pollPerSecond, pollBurst);
+    }
+
+    /**
+     * Consumă un token pentru cheie. Întoarce 0 dacă request-ul poate trece, altfel câte
+     * nanosecunde mai are de așteptat clientul până la următorul token (pentru Retry-After).
+     */
+    public long tryAcquire(Endpoint endpoint, String key) {
+        Limit limit = limits[endpoint.ordinal()];
+        long now = System.nanoTime();
+
+        AtomicLong bucket = limit.buckets.get(key);
+        if (bucket == null) {
+            if (limit.buckets.size() >= maxKeys) {
+                untracked.increment();
+                return 0;
+            }
+            // plin de acum; computeIfAbsent, ca două request-uri simultane să folosească același bucket
+            bucket = limit.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long full = bucket.get();
+            long next = (full - now > 0 ? full : now) + limit.intervalNanos;
+            long ahead = next - now;
+            if (ahead > limit.burstNanos) {
+                metrics.throttled(endpoint);
+                return ahead - limit.burstNanos;
+            }
+            if (bucket.compareAndSet(full, next)) return 0;
+        }
+    }
+
+    /**
+     * Scoate bucket-urile care s-au umplut la loc. Un request care a citit bucket-ul chiar înainte
+     * să fie scos consumă dintr-unul orfan, deci la limită scapă un token: acceptabil pentru o limită.
+     */
+    @Scheduled(fixedDelayString = "${battleboats.ratelimit.sweep-ms:10000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Limit limit : limits) {
+            limit.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    public int getKeyCount() {
+        int n = 0;
+        for (Limit limit : limits) n += limit.buckets.size();
+        return n;
+    }
+
+    public long getUntracked() {
+        return untracked.sum();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rating-ul Elo al fiecărui user, ținut în memorie (ca {@link LeaderboardIndex}).
+ *
+ * Se încarcă o dată din `users` la pornire; la finalul unui joc între doi useri calculăm noile
+ * valori aici, iar diferența ajunge în DB prin {@link StatsWriteBehind} ({@code rating = rating + ?}).
+ * Memoria e deci sursa de adevăr, cu un pas înaintea DB-ului. Jocurile cu botul nu schimbă rating-ul.
+ */
+@Service
+public class RatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${battleboats.rating.k-factor:32}")
+    private int kFactor;
+
+    private final Map<Long, Integer> ratings = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        jdbcTemplate.query("SELECT id, rating FROM users", rs -> {
+            ratings.put(rs.getLong(1), rs.getInt(2));
+        });
+        logger.info("Rating-uri incarcate: {} useri", ratings.size());
+    }
+
+    public void addUser(long userId) {
+        ratings.putIfAbsent(userId, User.DEFAULT_RATING);
+    }
+
+    public int ratingOf(long userId) {
+        return ratings.getOrDefault(userId, User.DEFAULT_RATING);
+    }
+
+    /**
+     * Aplică rezultatul unui joc și întoarce cu cât s-a schimbat rating-ul lui player1
+     * (player2 primește opusul). Serializat: un user poate termina două jocuri aproape simultan.
+     */
+    public synchronized int recordGame(long player1Id, long player2Id, boolean player1Won) {
+        int r1 = ratingOf(player1Id);
+        int r2 = ratingOf(player2Id);
+        double expected = 1.0 / (1.0 + Math.pow(10, (r2 - r1) / 400.0));
+        int delta = (int) Math.round(kFactor * ((player1Won ? 1.0 : 0.0) - expected));
+        ratings.put(player1Id, r1 + delta);
+        ratings.put(player2Id, r2 - delta);
+        return delta;
+    }
+}
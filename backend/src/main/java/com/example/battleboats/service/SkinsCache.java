@@ -0,0 +1,60 @@
+package com.example.battleboats.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache read-through pentru skin-urile userilor (harta imutabilă shipType -> imagine).
+ *
+ * Mărginit ca număr de intrări (LRU); {@code SkinsController} citește prin el, iar la update
+ * scrie noua hartă direct în cache după ce s-a salvat în DB. Încărcările după un miss folosesc
+ * {@link #putIfAbsent}, ca un GET lent să nu suprascrie valoarea pusă de un update concurent.
+ */
+@Service
+public class SkinsCache {
+
+    private final Map<Long, Map<Integer, String>> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SkinsCache(@Value("${battleboats.skins.cache-size:10000}") int maxEntries) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Integer, String>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public Map<Integer, String> get(Long userId) {
+        Map<Integer, String> skins = cache.get(userId);
+        if (skins != null) hits.increment();
+        else misses.increment();
+        return skins;
+    }
+
+    // Rezultatul unei încărcări din DB după un miss
+    public Map<Integer, String> putIfAbsent(Long userId, Map<Integer, String> skins) {
+        Map<Integer, String> existing = cache.putIfAbsent(userId, skins);
+        return existing != null ? existing : skins;
+    }
+
+    // Valoarea nouă după un update (write-through)
+    public void put(Long userId, Map<Integer, String> skins) {
+        cache.put(userId, skins);
+    }
+
+    public void invalidate(Long userId) {
+        cache.remove(userId);
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public int size() { return cache.size(); }
+}
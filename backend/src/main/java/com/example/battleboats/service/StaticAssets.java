@@ -0,0 +1,188 @@
+package com.example.battleboats.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fișierele statice ale frontend-ului (classpath:/static și ./img), încărcate o dată în memorie la pornire.
+ *
+ * Fiecare fișier primește și un nume cu hash-ul conținutului ({@code style-<md5>.css}, ca la
+ * VersionResourceResolver din Spring): conținutul de la un astfel de URL nu se schimbă niciodată,
+ * deci browserul îl poate ține în cache fără să mai întrebe serverul. Paginile HTML rămân la
+ * numele lor (sunt punctul de intrare), dar la încărcare rescriem în ele href/src către numele cu
+ * hash și le punem manifestul (logic -> versionat) în {@code window.ASSET_MANIFEST}, pentru
+ * căile construite din JS (skin-uri, sunete) - vezi assetUrl() din config.js.
+ *
+ * Textul (HTML, CSS, JS, SVG) e comprimat gzip tot aici, o singură dată; la request doar alegem
+ * varianta potrivită (vezi config.StaticAssetResolver). Brotli nu are encoder în JDK, deci doar gzip.
+ */
+@Service
+public class StaticAssets {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticAssets.class);
+
+    private static final String STATIC_ROOT = "classpath:/static/";
+
+    // href="style.css" / src="config.js": doar căi relative, fără schemă, query sau ancoră
+    private static final Pattern REFERENCE = Pattern.compile("\\b(href|src)=\"([^\":?#]+)\"");
+
+    /** Un fișier gata de servit; gzip e null dacă nu merită comprimat. */
+    public record Asset(String path, String versionedPath, String hash, MediaType mediaType, byte[] body, byte[] gzip) {}
+
+    @Value("${battleboats.assets.img-dir:./img/}")
+    private String imgDir;
+
+    // după calea logică ("img/2.png") și după cea cu hash ("img/2-<md5>.png")
+    private final Map<String, Asset> byPath = new LinkedHashMap<>();
+    private final Map<String, Asset> byVersionedPath = new LinkedHashMap<>();
+
+    @PostConstruct
+    void load() throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+        scan(STATIC_ROOT, "", files);
+        // ./img din directorul de lucru suprascrie imaginile din jar (skin-uri adăugate fără rebuild)
+        scan("file:" + (imgDir.endsWith("/") ? imgDir : imgDir + "/"), "img/", files);
+
+        // întâi tot ce nu e HTML, ca paginile să poată fi rescrise cu numele finale
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            if (!isHtml(file.getKey())) add(file.getKey(), file.getValue());
+        }
+        String manifest = manifestScript();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            if (isHtml(file.getKey())) add(file.getKey(), rewriteHtml(new String(file.getValue(), StandardCharsets.UTF_8), manifest));
+        }
+
+        long bytes = 0, gzipped = 0;
+        for (Asset asset : byPath.values()) {
+            bytes += asset.body().length;
+            gzipped += asset.gzip() != null ? asset.gzip().length : asset.body().length;
+        }
+        logger.info("Fisiere statice incarcate: {} ({} KB, {} KB cu gzip)", byPath.size(), bytes / 1024, gzipped / 1024);
+    }
+
+    /** Fișierul de la calea cerută (logică sau cu hash), sau null. */
+    public Asset find(String path) {
+        Asset asset = byVersionedPath.get(path);
+        return asset != null ? asset : byPath.get(path);
+    }
+
+    public boolean isVersioned(Asset asset, String path) {
+        return !asset.versionedPath().equals(asset.path()) && asset.versionedPath().equals(path);
+    }
+
+    public int size() {
+        return byPath.size();
+    }
+
+    private void scan(String root, String prefix, Map<String, byte[]> files) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Resource rootResource = resolver.getResource(root);
+        if (!rootResource.exists()) return;
+
+        for (Resource resource : resolver.getResources(root + "**/*")) {
+            if (!resource.isReadable()) continue; // directoare
+            String path = relativePath(rootResource, resource);
+            if (path == null) continue;
+            try (InputStream in = resource.getInputStream()) {
+                files.put(prefix + path, in.readAllBytes());
+            }
+        }
+    }
+
+    // Din IDE / ./img sunt fișiere pe disc, din jar sunt URL-uri jar:...!/static/...
+    private static String relativePath(Resource root, Resource resource) throws IOException {
+        if (root.isFile() && resource.isFile()) {
+            Path rootPath = root.getFile().toPath().toAbsolutePath().normalize();
+            Path path = resource.getFile().toPath().toAbsolutePath().normalize();
+            return path.startsWith(rootPath) ? rootPath.relativize(path).toString().replace(File.separatorChar, '/') : null;
+        }
+        String rootUrl = root.getURL().toString();
+        String url = resource.getURL().toString();
+        return url.startsWith(rootUrl) ? url.substring(rootUrl.length()) : null;
+    }
+
+    private void add(String path, byte[] body) throws IOException {
+        String hash = DigestUtils.md5DigestAsHex(body);
+        MediaType mediaType = MediaTypeFactory.getMediaType(path).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        // HTML-ul e intrarea în aplicație, deci rămâne la numele lui (și se revalidează cu ETag)
+        String versionedPath = isHtml(path) ? path : versioned(path, hash);
+
+        Asset asset = new Asset(path, versionedPath, hash, mediaType, body, compressible(mediaType) ? gzip(body) : null);
+        byPath.put(path, asset);
+        byVersionedPath.put(versionedPath, asset);
+    }
+
+    private byte[] rewriteHtml(String html, String manifest) {
+        Matcher matcher = REFERENCE.matcher(html);
+        StringBuilder out = new StringBuilder(html.length() + manifest.length());
+        while (matcher.find()) {
+            Asset asset = byPath.get(matcher.group(2));
+            String target = asset != null ? asset.versionedPath() : matcher.group(2);
+            matcher.appendReplacement(out, Matcher.quoteReplacement(matcher.group(1) + "=\"" + target + "\""));
+        }
+        matcher.appendTail(out);
+
+        int head = out.indexOf("</head>");
+        if (head >= 0) out.insert(head, manifest);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String manifestScript() {
+        StringBuilder json = new StringBuilder("<script>window.ASSET_MANIFEST={");
+        boolean first = true;
+        for (Asset asset : byPath.values()) {
+            if (!first) json.append(',');
+            json.append('"').append(asset.path()).append("\":\"").append(asset.versionedPath()).append('"');
+            first = false;
+        }
+        return json.append("};</script>\n").toString();
+    }
+
+    private static String versioned(String path, String hash) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash + 1) return path + "-" + hash;
+        return path.substring(0, dot) + "-" + hash + path.substring(dot);
+    }
+
+    private static boolean isHtml(String path) {
+        return path.endsWith(".html");
+    }
+
+    private static boolean compressible(MediaType type) {
+        return "text".equals(type.getType())
+                || type.getSubtype().contains("javascript")
+                || type.getSubtype().contains("json")
+                || type.getSubtype().contains("xml");
+    }
+
+    // null dacă gzip nu câștigă măcar 10% (fișiere mici sau deja comprimate)
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        }
+        return out.size() < body.length * 9L / 10 ? out.toByteArray() : null;
+    }
+}
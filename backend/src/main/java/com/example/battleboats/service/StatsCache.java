@@ -0,0 +1,89 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.UserStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache read-through pentru GET /api/stats/{userId}, cu versiune per user.
+ *
+ * Statisticile se schimbă doar când {@link StatsWriteBehind} scrie un flush în DB; atunci crește
+ * versiunea userilor atinși. O intrare din cache e bună cât timp versiunea ei e cea curentă.
+ * Versiunea o citim înainte de încărcarea din DB: dacă un flush trece între timp, intrarea rămâne
+ * cu versiunea veche și e reîncărcată la cererea următoare, deci nu putem fixa o valoare veche.
+ */
+@Service
+public class StatsCache {
+
+    private static final String LOAD_SQL = """
+            SELECT u.games_played, u.wins, u.rating, s.shots, s.hits, s.shots_in_wins, s.current_streak, s.best_streak,
+                s.timed_games, s.total_duration_ms
+            FROM users u LEFT JOIN user_stats s ON s.user_id = u.id
+            WHERE u.id = ?""";
+
+    private record Entry(long version, UserStats stats) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameMetrics metrics;
+
+    private final Map<Long, Entry> cache;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StatsCache(@Value("${battleboats.stats.cache-size:10000}") int maxEntries) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /** Statisticile userului, sau null dacă nu există. */
+    public UserStats get(Long userId) {
+        long version = versions.getOrDefault(userId, 0L);
+        Entry entry = cache.get(userId);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+            return entry.stats();
+        }
+        misses.increment();
+
+        List<UserStats> rows = metrics.db(GameMetrics.DbCall.USER_STATS_LOAD, () -> jdbcTemplate.query(LOAD_SQL,
+                (rs, i) -> new UserStats(rs.getLong("games_played"), rs.getLong("wins"), rs.getInt("rating"),
+                        rs.getLong("shots"), rs.getLong("hits"), rs.getLong("shots_in_wins"),
+                        rs.getInt("current_streak"), rs.getInt("best_streak"),
+                        rs.getLong("timed_games"), rs.getLong("total_duration_ms")),
+                userId));
+        if (rows.isEmpty()) return null;
+
+        UserStats stats = rows.get(0);
+        // nu înlocuim o intrare mai nouă pusă de alt thread
+        cache.merge(userId, new Entry(version, stats), (old, loaded) -> old.version() > loaded.version() ? old : loaded);
+        return stats;
+    }
+
+    // Apelat după ce un flush a ajuns în DB
+    public void invalidate(Collection<Long> userIds) {
+        for (Long userId : userIds) versions.merge(userId, 1L, Long::sum);
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public int size() { return cache.size(); }
+}
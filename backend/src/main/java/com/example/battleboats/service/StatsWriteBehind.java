@@ -0,0 +1,155 @@
+package com.example.battleboats.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffer write-behind pentru statisticile din `users` și `user_stats`.
+ *
+ * La final de joc nu mai facem findById + save pe request: adunăm doar delte per user
+ * (gamesPlayed += x, wins += y, rating, lovituri, durată), comasate în memorie, iar un job periodic le scrie
+ * în batch-uri JDBC de UPDATE-uri atomice ({@code SET wins = wins + ?}). Două jocuri terminate simultan
+ * nu mai pot pierde incremente, iar la oprire golim buffer-ul înainte să se închidă DataSource-ul.
+ *
+ * Seriile de victorii nu sunt simple sume, dar tot se pot comasa: o deltă ține câte victorii au fost
+ * înainte de prima înfrângere (lead), dacă a fost vreo înfrângere, câte victorii după ultima (trail)
+ * și cea mai lungă serie încheiată în interiorul ei (best). Două delte consecutive dau tot o deltă,
+ * iar UPDATE-ul o aplică peste current_streak / best_streak din DB.
+ */
+@Service
+public class StatsWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsWriteBehind.class);
+
+    private static final String UPDATE_USERS_SQL =
+            "UPDATE users SET games_played = games_played + ?, wins = wins + ?, rating = rating + ? WHERE id = ?";
+
+    // Userii înregistrați după V4 nu au încă rând în user_stats
+    private static final String ENSURE_STATS_SQL =
+            "INSERT INTO user_stats (user_id) SELECT id FROM users WHERE id = ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM user_stats WHERE user_id = ?)";
+
+    // best_streak înaintea lui current_streak: MySQL evaluează SET-urile de la stânga la dreapta
+    private static final String UPDATE_STATS_SQL = """
+            UPDATE user_stats SET shots = shots + ?, hits = hits + ?, shots_in_wins = shots_in_wins + ?,
+                timed_games = timed_games + ?, total_duration_ms = total_duration_ms + ?,
+                best_streak = GREATEST(best_streak, current_streak + ?, ?),
+                current_streak = CASE WHEN ? THEN ? ELSE current_streak + ? END
+            WHERE user_id = ?""";
+
+    /** Rezultatul unui joc pentru un jucător; durationMs < 0 = durată necunoscută; ratingDelta vine din RatingService. */
+    public record Outcome(boolean won, int shots, int hits, long durationMs, int ratingDelta) {}
+
+    record Delta(int gamesPlayed, int wins, int rating, long shots, long hits, long shotsInWins,
+                         int timedGames, long durationMs,
+                         int lead, boolean loss, int trail, int best) {
+
+        static Delta of(Outcome o) {
+            boolean timed = o.durationMs() >= 0;
+            return new Delta(1, o.won() ? 1 : 0, o.ratingDelta(), o.shots(), o.hits(), o.won() ? o.shots() : 0,
+                    timed ? 1 : 0, timed ? o.durationMs() : 0,
+                    o.won() ? 1 : 0, !o.won(), 0, 0);
+        }
+
+        // this, apoi other (ordinea contează doar pentru serii)
+        Delta plus(Delta other) {
+            int lead = loss ? this.lead : this.lead + other.lead;
+            int trail = other.loss ? other.trail : this.trail + other.lead;
+            int best = !loss ? other.best
+                    : !other.loss ? Math.max(this.best, trail)
+                    : Math.max(Math.max(this.best, other.best), this.trail + other.lead);
+            return new Delta(gamesPlayed + other.gamesPlayed, wins + other.wins, rating + other.rating,
+                    shots + other.shots, hits + other.hits, shotsInWins + other.shotsInWins,
+                    timedGames + other.timedGames, durationMs + other.durationMs,
+                    lead, loss || other.loss, trail, best);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private StatsCache statsCache;
+
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+
+    public void add(Long userId, Outcome outcome) {
+        pending.merge(userId, Delta.of(outcome), Delta::plus);
+        leaderboardIndex.applyDelta(userId, 1, outcome.won() ? 1 : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${battleboats.stats.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        // remove() pe fiecare cheie e atomic: ce vine după intră într-o deltă nouă, la următorul flush
+        List<Long> userIds = new ArrayList<>(pending.size());
+        List<Delta> deltas = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            Delta delta = pending.remove(userId);
+            if (delta == null) continue;
+            userIds.add(userId);
+            deltas.add(delta);
+        }
+        if (deltas.isEmpty()) return;
+
+        List<Object[]> users = new ArrayList<>(deltas.size());
+        List<Object[]> ensure = new ArrayList<>(deltas.size());
+        List<Object[]> stats = new ArrayList<>(deltas.size());
+        for (int i = 0; i < deltas.size(); i++) {
+            Long userId = userIds.get(i);
+            Delta d = deltas.get(i);
+            users.add(new Object[]{d.gamesPlayed(), d.wins(), d.rating(), userId});
+            ensure.add(new Object[]{userId, userId});
+            stats.add(new Object[]{d.shots(), d.hits(), d.shotsInWins(), d.timedGames(), d.durationMs(),
+                    d.lead(), d.loss() ? d.best() : 0, d.loss(), d.trail(), d.lead(), userId});
+        }
+
+        try {
+            // o singură tranzacție: dacă pică, nu s-a aplicat nimic și deltele se pot pune înapoi întregi
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPDATE_USERS_SQL, users);
+                jdbcTemplate.batchUpdate(ENSURE_STATS_SQL, ensure);
+                jdbcTemplate.batchUpdate(UPDATE_STATS_SQL, stats);
+            });
+        } catch (Exception e) {
+            // punem deltele înapoi, înaintea celor venite între timp (clasamentul le are deja)
+            for (int i = 0; i < deltas.size(); i++) {
+                Delta delta = deltas.get(i);
+                pending.merge(userIds.get(i), delta, (newer, older) -> older.plus(newer));
+            }
+            logger.warn("Flush statistici esuat ({} useri), reincerc: {}", deltas.size(), e.getMessage());
+            return;
+        }
+        statsCache.invalidate(userIds);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.error("Statistici nescrise la oprire pentru {} useri", pending.size());
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
@@ -5,78 +5,104 @@ import com.example.battleboats.model.UserSkins;
 // Asigură-te că numele pachetului 'reprository' e scris la fel ca folderul tău din stânga
 import com.example.battleboats.reprository.UserRepository;
 import com.example.battleboats.reprository.UserSkinsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     @Autowired  // <--- ASTA LIPSEA! Acum Spring va conecta baza de date aici.
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private UserSkinsRepository userSkinsRepository;
 
-    public User registerUser(String username, String password) {
+    @Autowired
+    private StatsWriteBehind statsWriteBehind;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private RatingService ratings;
+
+    @Autowired
+    private GameMetrics metrics;
+
+    // Executorul Spring pentru request-urile async (același pe care MVC le continuă)
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor dbExecutor;
+
+    // Hash-ul BCrypt rulează pe pool-ul mic din PasswordHasher; salvarea trece pe dbExecutor, ca
+    // thread-urile de hash să nu stea după DB (altfel coada lor se umple mai repede și dă 503)
+    public CompletableFuture<User> registerUser(String username, String password) {
         // Verificam daca userul exista deja
-        if (userRepository.findByUsername(username).isPresent()) {
+        if (findUser(username).isPresent()) {
             throw new RuntimeException("Username-ul este deja luat!");
         }
 
-        User newUser = new User();
-        newUser.setUsername(username);
         // Criptam parola inainte de salvare
-        newUser.setPassword(passwordEncoder.encode(password));
+        return passwordHasher.encode(password).thenApplyAsync(hash -> {
+            User newUser = new User();
+            newUser.setUsername(username);
+            newUser.setPassword(hash);
 
-        User savedUser = userRepository.save(newUser);
+            User savedUser = metrics.db(GameMetrics.DbCall.USERS_SAVE, () -> userRepository.save(newUser));
+            leaderboardIndex.addUser(savedUser.getId(), savedUser.getUsername());
+            ratings.addUser(savedUser.getId());
 
-        // Cream automat randul de skin-uri default pentru user
-        createDefaultSkinsForUser(savedUser.getId(), savedUser.getUsername());
+            // Cream automat randul de skin-uri default pentru user
+            createDefaultSkinsForUser(savedUser.getId(), savedUser.getUsername());
 
-        return savedUser;
+            return savedUser;
+        }, dbExecutor);
     }
 
     private void createDefaultSkinsForUser(Long userId, String username) {
-        System.out.println("=== CREARE SKIN-URI DEFAULT PENTRU USER ID: " + userId + " ===");
+        // debug, nu System.out: la multe înregistrări simultane consola devine un punct de contenție
         UserSkins skinsRow = new UserSkins(userId, username);
-        UserSkins saved = userSkinsRepository.save(skinsRow);
-        System.out.println("Salvat skins row: userId=" + saved.getUserId() + ", username=" + saved.getUsername());
-        System.out.println("=== SKIN-URI DEFAULT CREATE CU SUCCES ===");
+        UserSkins saved = metrics.db(GameMetrics.DbCall.USER_SKINS_SAVE, () -> userSkinsRepository.save(skinsRow));
+        logger.debug("Skin-uri default create: userId={}, username={}", saved.getUserId(), saved.getUsername());
     }
 
-    public User loginUser(String username, String password) {
+    public CompletableFuture<User> loginUser(String username, String password) {
         // Cautam userul
-        User user = userRepository.findByUsername(username)
+        User user = findUser(username)
                 .orElseThrow(() -> new RuntimeException("User negăsit!"));
 
-        // Verificam parola
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new RuntimeException("Parolă greșită!");
-        }
-        return user;
+        // Verificam parola (pe pool-ul de hash, nu pe thread-ul servlet)
+        return passwordHasher.matches(password, user.getPassword()).thenApply(ok -> {
+            if (!ok) throw new RuntimeException("Parolă greșită!");
+            return user;
+        });
     }
 
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return findUser(username)
                 .orElseThrow(() -> new RuntimeException("User negăsit!"));
     }
 
-
-    public void recordGamePlayed(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User negăsit!"));
-        user.setGamesPlayed(user.getGamesPlayed() + 1);
-        userRepository.save(user);
+    // Apelurile la DB trec prin timer-ele din GameMetrics (battleboats.db.calls)
+    private Optional<User> findUser(String username) {
+        return metrics.db(GameMetrics.DbCall.USERS_FIND_BY_USERNAME, () -> userRepository.findByUsername(username));
     }
 
-    public void recordWin(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User negăsit!"));
-        user.setWins(user.getWins() + 1);
-        userRepository.save(user);
+
+    // Statisticile nu se mai scriu pe request: intra in buffer-ul write-behind (UPDATE atomic, in batch)
+    public void recordGameResult(Long userId, StatsWriteBehind.Outcome outcome) {
+        if (userId != null) statsWriteBehind.add(userId, outcome);
     }
 }
\ No newline at end of file
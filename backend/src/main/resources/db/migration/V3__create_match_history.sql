@@ -0,0 +1,27 @@
+-- Creates table: match_history
+-- Written in batches by com.example.battleboats.service.MatchHistoryService (one row per finished game)
+--
+-- player*_id are NULL for the bot. "My recent games" is read with keyset pagination on id
+-- (WHERE player1_id = ? AND id < ? ORDER BY id DESC), once per side, so each side gets
+-- its own (player, id) index and a deep page costs the same as the first.
+
+CREATE TABLE IF NOT EXISTS match_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    game_id VARCHAR(36) NOT NULL,
+    player1_id BIGINT NULL,
+    player2_id BIGINT NULL,
+    winner_id BIGINT NULL,
+    vs_bot BOOLEAN NOT NULL DEFAULT FALSE,
+    board_size INT NOT NULL,
+    player1_shots INT NOT NULL,
+    player1_hits INT NOT NULL,
+    player2_shots INT NOT NULL,
+    player2_hits INT NOT NULL,
+    started_at DATETIME(3) NULL,
+    ended_at DATETIME(3) NOT NULL,
+    duration_ms BIGINT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_match_history_game_id (game_id),
+    KEY idx_match_history_player1 (player1_id, id),
+    KEY idx_match_history_player2 (player2_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,22 @@
+-- Creates table: user_stats
+-- Aggregates kept up to date by com.example.battleboats.service.StatsWriteBehind (games_played / wins stay in users)
+--
+-- shots_in_wins / wins = average shots to win; total_duration_ms / timed_games = average game length
+-- (games restored from the journal after a restart have no start time, so they are not timed).
+
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id BIGINT NOT NULL,
+    shots BIGINT NOT NULL DEFAULT 0,
+    hits BIGINT NOT NULL DEFAULT 0,
+    shots_in_wins BIGINT NOT NULL DEFAULT 0,
+    current_streak INT NOT NULL DEFAULT 0,
+    best_streak INT NOT NULL DEFAULT 0,
+    timed_games INT NOT NULL DEFAULT 0,
+    total_duration_ms BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_user_stats_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO user_stats (user_id)
+SELECT u.id FROM users u
+WHERE NOT EXISTS (SELECT 1 FROM user_stats s WHERE s.user_id = u.id);
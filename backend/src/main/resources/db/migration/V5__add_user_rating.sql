@@ -0,0 +1,4 @@
+-- Adds column: users.rating (Elo)
+-- Matches com.example.battleboats.model.User; updated at game end through StatsWriteBehind (rating = rating + delta)
+
+ALTER TABLE users ADD COLUMN rating INT NOT NULL DEFAULT 1200;
@@ -4,6 +4,24 @@
 // You can still override by setting window.API_BASE_URL before other scripts.
 window.API_BASE_URL = window.API_BASE_URL || '';
 
+// Format binar compact pentru starea jocului și trageri (wire.js); false => JSON ca înainte.
+window.BINARY_WIRE = window.BINARY_WIRE ?? true;
+
+// Fișierele statice au URL-uri cu hash-ul conținutului (cache "immutable"); serverul pune în fiecare pagină
+// manifestul window.ASSET_MANIFEST. Căile construite din JS (skin-uri, sunete) trec prin assetUrl;
+// fără manifest (frontend servit altfel) calea rămâne cum e.
+window.assetUrl = (path) => {
+  const manifest = window.ASSET_MANIFEST || {};
+  const key = String(path).replace(/^\//, '');
+  return manifest[key] ? (String(path).startsWith('/') ? '/' : '') + manifest[key] : path;
+};
+
+// Tokenul de sesiune primit la login; /api/game/join, /fire și /leave îl cer în header.
+window.authHeaders = () => {
+  const token = localStorage.getItem('battleboats_token');
+  return token ? { Authorization: 'Bearer ' + token } : {};
+};
+
 // Firebase Web app config (Firebase Console -> Project settings -> Your apps -> Web app)
 // NOTE: It's normal for these keys to be public; security is enforced by Auth + Firestore Rules.
 window.FIREBASE_CONFIG = window.FIREBASE_CONFIG || {
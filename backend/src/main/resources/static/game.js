@@ -3,7 +3,20 @@ const API_BASE_URL = (window.API_BASE_URL || '');
 const dockElement = document.getElementById('dock');
 const boardElement = document.getElementById('my-board');
 const confirmBtn = document.getElementById("confirm-btn");
-const GRID_SIZE = 10;
+const botBtn = document.getElementById("bot-btn");
+const rankedBtn = document.getElementById("ranked-btn");
+const rankedCancelBtn = document.getElementById("ranked-cancel-btn");
+const randomBtn = document.getElementById("random-btn");
+const boardSizeSelect = document.getElementById("board-size");
+let rankedSearching = false;
+
+// Latura tablei aleasă în lobby; flota (ce nave și de câte ori) vine de la server pentru mărimea asta
+let gridSize = 10;
+let fleet = [];
+let userSkins = {};
+
+// Mărimile oferite pentru modul "large battle" (serverul le taie la battleboats.board.max-size)
+const LARGE_BOARD_SIZES = [16, 20, 32, 64];
 
 // culoarea apei, folosită când resetăm celule
 const WATER_COLOR = "#2980b9";
@@ -45,21 +58,29 @@ document.addEventListener("DOMContentLoaded", async () => {
         return;
     }
 
-    createBoard();
-    fetchAndDisplaySavedShips();
+    await loadUserSkins();
+    await loadFleet(gridSize);
 });
 
 function createBoard() {
     boardElement.innerHTML = "";
-    boardElement.style.setProperty('--grid-rows', GRID_SIZE);
-    boardElement.style.setProperty('--grid-cols', GRID_SIZE);
+    boardElement.style.setProperty('--grid-rows', gridSize);
+    boardElement.style.setProperty('--grid-cols', gridSize);
+
+    // pe table mari micșorăm celulele ca tabla să încapă în ~420px (la fel ca în battle.html)
+    const cellPx = gridSize <= 10 ? 40 : Math.max(6, Math.floor(420 / gridSize) - 1);
+    boardElement.style.gridTemplateColumns = `repeat(${gridSize}, ${cellPx}px)`;
+    boardElement.style.gridTemplateRows = `repeat(${gridSize}, ${cellPx}px)`;
+    boardElement.style.gap = gridSize <= 10 ? '2px' : '1px';
 
-    for (let i = 0; i < (GRID_SIZE * GRID_SIZE); i++) {
+    for (let i = 0; i < (gridSize * gridSize); i++) {
         const cell = document.createElement("div");
         cell.classList.add("grid-cell");
+        cell.style.width = `${cellPx}px`;
+        cell.style.height = `${cellPx}px`;
         cell.dataset.index = i;
-        cell.dataset.x = i % GRID_SIZE;
-        cell.dataset.y = Math.floor(i / GRID_SIZE);
+        cell.dataset.x = i % gridSize;
+        cell.dataset.y = Math.floor(i / gridSize);
 
         cell.addEventListener("dragover", handleDragOver);
         cell.addEventListener("dragleave", clearHighlights);
@@ -69,51 +90,99 @@ function createBoard() {
     }
 }
 
-// 2. Navele standard pentru toți jucătorii
-async function fetchAndDisplaySavedShips() {
-    // Nave fixe: 4x1, 3x2, 2x3, 1x4 blocuri
-    const standardShips = [
-        { id: 1, name: "Barcă 1", size: 1 },
-        { id: 2, name: "Barcă 2", size: 1 },
-        { id: 3, name: "Barcă 3", size: 1 },
-        { id: 4, name: "Barcă 4", size: 1 },
-        { id: 5, name: "Distrugător 1", size: 2 },
-        { id: 6, name: "Distrugător 2", size: 2 },
-        { id: 7, name: "Distrugător 3", size: 2 },
-        { id: 8, name: "Crucișător 1", size: 3 },
-        { id: 9, name: "Crucișător 2", size: 3 },
-        { id: 10, name: "Portavion", size: 4 }
-    ];
-
-    // Obținem username-ul din localStorage
+// 2. Skin-urile userului (după lungimea navei)
+async function loadUserSkins() {
     const username = localStorage.getItem("connectedUser");
-    let userSkins = {};
-
-    if (username) {
-        try {
-            // Obținem ID-ul userului din backend
-            const userResponse = await fetch(`${API_BASE_URL}/api/auth/user/${username}`);
-            if (userResponse.ok) {
-                const userData = await userResponse.json();
-                const userIdFromDB = userData.id;
-
-                // Obținem skin-urile userului
-                const skinsResponse = await fetch(`${API_BASE_URL}/api/skins/${userIdFromDB}`);
-                if (skinsResponse.ok) {
-                    userSkins = await skinsResponse.json();
-                }
+    if (!username) return;
+    try {
+        // Obținem ID-ul userului din backend
+        const userResponse = await fetch(`${API_BASE_URL}/api/auth/user/${username}`);
+        if (userResponse.ok) {
+            const userData = await userResponse.json();
+
+            // Obținem skin-urile userului
+            const skinsResponse = await fetch(`${API_BASE_URL}/api/skins/${userData.id}`);
+            if (skinsResponse.ok) {
+                userSkins = await skinsResponse.json();
             }
-        } catch (error) {
-            console.error("Eroare la încărcarea skin-urilor:", error);
         }
+    } catch (error) {
+        console.error("Eroare la încărcarea skin-urilor:", error);
     }
+}
+
+// Flota pentru tabla aleasă, de la server: pe 10x10 sunt cele 10 nave clasice (4x1, 3x2, 2x3, 1x4),
+// pe tablele mari fiecare navă din catalog apare de mai multe ori (copies)
+async function loadFleet(size) {
+    const response = await fetch(`${API_BASE_URL}/api/game/fleet?boardSize=${size}`);
+    if (!response.ok) {
+        alert("Nu pot încărca flota pentru tabla aleasă.");
+        boardSizeSelect.value = String(gridSize);
+        return;
+    }
+    const data = await response.json();
+    fillBoardSizes(data.maxBoardSize);
+
+    gridSize = data.boardSize;
+    boardSizeSelect.value = String(gridSize);
+    fleet = [];
+    data.ships.forEach(ship => {
+        for (let c = 0; c < ship.copies; c++) {
+            fleet.push({
+                // id-ul piesei din UI; la server trimitem shipId (același pentru toate copiile)
+                id: ship.copies === 1 ? String(ship.shipId) : `${ship.shipId}-${c + 1}`,
+                shipId: ship.shipId,
+                size: ship.size,
+                skinPath: userSkins[ship.size] || "img/default.png"
+            });
+        }
+    });
+
+    placedShips.length = 0;
+    createBoard();
+    displayShipsInDock(fleet);
+}
 
-    // Atașăm skin-urile la nave
-    standardShips.forEach(ship => {
-        ship.skinPath = userSkins[ship.size] || "img/default.png";
+function fillBoardSizes(maxBoardSize) {
+    if (boardSizeSelect.options.length > 1) return;
+    LARGE_BOARD_SIZES.filter(size => size <= maxBoardSize).forEach(size => {
+        const option = document.createElement("option");
+        option.value = String(size);
+        option.textContent = `${size} x ${size} (large battle)`;
+        boardSizeSelect.appendChild(option);
     });
+}
 
-    displayShipsInDock(standardShips);
+async function changeBoardSize(value) {
+    const size = parseInt(value);
+    if (size === gridSize || rankedSearching) {
+        boardSizeSelect.value = String(gridSize);
+        return;
+    }
+    if (placedShips.length > 0 && !confirm("Schimbi tabla? Navele așezate vor fi scoase.")) {
+        boardSizeSelect.value = String(gridSize);
+        return;
+    }
+    await loadFleet(size);
+}
+
+// Așază aleator navele rămase în dock (cele lungi întâi); util mai ales pe tablele mari
+function placeRemainingRandomly() {
+    const remaining = fleet
+        .filter(piece => !placedShips.some(s => s.id === piece.id))
+        .sort((a, b) => b.size - a.size);
+
+    for (const piece of remaining) {
+        for (let tries = 0; tries < 500; tries++) {
+            const horizontal = Math.random() < 0.5;
+            const start = Math.floor(Math.random() * gridSize * gridSize);
+            const indices = calculateIndices(start, piece.size, horizontal);
+            if (isValidPlacement(indices)) {
+                placeShipOnBoard(piece.id, piece.size, indices, horizontal);
+                break;
+            }
+        }
+    }
 }
 
 // 3. Afișează navele în Dock
@@ -128,12 +197,13 @@ function displayShipsInDock(ships) {
         shipDiv.id = `ship-${ship.id}`;
         shipDiv.dataset.length = ship.size;
         shipDiv.dataset.id = ship.id.toString();
+        shipDiv.dataset.shipId = ship.shipId.toString();
         shipDiv.dataset.skinPath = ship.skinPath || "img/default.png";
 
         // In dock afisam doar skin-ul, repetat pe lungime (ship.size)
         const skinPath = shipDiv.dataset.skinPath;
         shipDiv.innerHTML = `
-            <div class="ship-skin" style="--ship-len:${ship.size}; --skin-url:url('${skinPath.replace(/'/g, "\\'")}')"></div>
+            <div class="ship-skin" style="--ship-len:${ship.size}; --skin-url:url('${assetUrl(skinPath).replace(/'/g, "\\'")}')"></div>
         `;
 
         // --- Logica DragStart ---
@@ -177,7 +247,7 @@ function handleDragOver(e) {
         indices.forEach(idx => getCell(idx)?.classList.add("hover-valid"));
     } else {
         indices.forEach(idx => {
-            if(idx >= 0 && idx < 100) getCell(idx)?.classList.add("hover-invalid");
+            if (idx >= 0 && idx < gridSize * gridSize) getCell(idx)?.classList.add("hover-invalid");
         });
     }
 }
@@ -219,8 +289,9 @@ function handleDragEnd(e) {
 function placeShipOnBoard(id, length, indices, isHorizontal) {
     const dockShip = document.getElementById(`ship-${id}`);
     const skinPath = dockShip?.dataset?.skinPath || "img/default.png";
+    const shipId = Number(dockShip?.dataset?.shipId ?? id);
 
-    placedShips.push({ id, length, isHorizontal, indices, skinPath });
+    placedShips.push({ id, shipId, length, isHorizontal, indices, skinPath });
 
     indices.forEach((idx, i) => {
         const cell = getCell(idx);
@@ -231,7 +302,7 @@ function placeShipOnBoard(id, length, indices, isHorizontal) {
         cell.dataset.skinPath = skinPath;
 
         // Punem skin-ul ca background pe fiecare celulă (se repetă natural pe toată nava)
-        cell.style.backgroundImage = `url('${skinPath.replace(/'/g, "\\'")}')`;
+        cell.style.backgroundImage = `url('${assetUrl(skinPath).replace(/'/g, "\\'")}')`;
         cell.style.backgroundRepeat = "no-repeat";
         cell.style.backgroundPosition = "center";
         cell.style.backgroundSize = "contain";
@@ -344,7 +415,7 @@ function calculateStartIndex(targetIndex, isHorizontal) {
     if (isHorizontal) {
         return targetIndex - dragOffset;
     } else {
-        return targetIndex - (dragOffset * 10);
+        return targetIndex - (dragOffset * gridSize);
     }
 }
 
@@ -354,10 +425,10 @@ function calculateIndices(startIndex, length, isHorizontal) {
         let idx;
         if (isHorizontal) {
             idx = startIndex + i;
-            if (Math.floor(idx / GRID_SIZE) !== Math.floor(startIndex / GRID_SIZE)) return [-1];
+            if (Math.floor(idx / gridSize) !== Math.floor(startIndex / gridSize)) return [-1];
         } else {
-            idx = startIndex + (i * GRID_SIZE);
-            if (idx >= GRID_SIZE * GRID_SIZE) return [-1];
+            idx = startIndex + (i * gridSize);
+            if (idx >= gridSize * gridSize) return [-1];
         }
         indices.push(idx);
     }
@@ -366,7 +437,7 @@ function calculateIndices(startIndex, length, isHorizontal) {
 
 function isValidPlacement(indices, ignoreId = null) {
     if (indices.includes(-1)) return false;
-    if (indices.some(idx => idx < 0 || idx >= (GRID_SIZE * GRID_SIZE))) return false;
+    if (indices.some(idx => idx < 0 || idx >= (gridSize * gridSize))) return false;
 
     for (let idx of indices) {
         for (let ship of placedShips) {
@@ -388,15 +459,21 @@ function getCell(index) {
 }
 
 function checkGameReady() {
-    const expectedShips = 10; // 4x1 + 3x2 + 2x3 + 1x4 = 10 nave
+    const expectedShips = fleet.length;
 
     if (placedShips.length === expectedShips) {
         confirmBtn.disabled = false;
+        randomBtn.disabled = true;
+        botBtn.disabled = false;
+        rankedBtn.disabled = rankedSearching;
         confirmBtn.style.backgroundColor = "#2ecc71";
         confirmBtn.innerText = "✅ Gata de Luptă!";
         dockElement.style.visibility = "hidden";
     } else {
         confirmBtn.disabled = true;
+        randomBtn.disabled = false;
+        botBtn.disabled = true;
+        rankedBtn.disabled = true;
         confirmBtn.style.backgroundColor = "#e67e22";
         confirmBtn.innerText = `Plasează ${expectedShips - placedShips.length} nave rămase...`;
         dockElement.style.visibility = "visible";
@@ -408,12 +485,10 @@ function goBack() {
     window.location.href = "menu.html";
 }
 
-// --- 4. TRIMITERE LA SERVER (MULTIPLAYER JOIN) ---
-async function confirmPlacement() {
-    if (placedShips.length !== 10) return;
-
+// --- 4. TRIMITERE LA SERVER (MULTIPLAYER JOIN / JOC CU BOTUL) ---
+function placementPayload() {
     const placementData = placedShips.map(ship => ({
-        shipId: ship.id,
+        shipId: ship.shipId,
         isHorizontal: ship.isHorizontal,
         startCellIndex: ship.indices[0],
         occupiedIndices: ship.indices
@@ -421,12 +496,19 @@ async function confirmPlacement() {
 
     // Salvăm local navele noastre ca să le vedem pe battle.html
     localStorage.setItem("my_ships", JSON.stringify(placementData));
+    return placementData;
+}
+
+async function confirmPlacement(vsBot = false) {
+    if (fleet.length === 0 || placedShips.length !== fleet.length) return;
+
+    const placementData = placementPayload();
 
     try {
         // Apelăm endpoint-ul de JOIN pentru Multiplayer
-        const response = await fetch(`${API_BASE_URL}/api/game/join?userId=${userId}`, {
+        const response = await fetch(`${API_BASE_URL}/api/game/join?boardSize=${gridSize}${vsBot ? "&vsBot=true" : ""}`, {
             method: 'POST',
-            headers: { 'Content-Type': 'application/json' },
+            headers: { 'Content-Type': 'application/json', ...authHeaders() },
             body: JSON.stringify(placementData)
         });
 
@@ -436,6 +518,13 @@ async function confirmPlacement() {
             localStorage.setItem("current_game_id", data.gameId);
             // Mergem la luptă!
             window.location.href = "battle.html";
+        } else if (response.status === 401) {
+            // Token lipsă sau expirat => login din nou
+            alert("Sesiunea a expirat. Loghează-te din nou.");
+            window.location.href = "index.html";
+        } else if (response.status === 400) {
+            const data = await response.json().catch(() => ({}));
+            alert(data.error || "Aranjament invalid.");
         } else {
             alert("Eroare la conectare server.");
         }
@@ -443,4 +532,84 @@ async function confirmPlacement() {
         console.error(error);
         alert("Eroare de rețea.");
     }
-}
\ No newline at end of file
+}
+// --- 5. MECI CLASAT ---
+// Serverul ne ține în coadă după rating și răspunde când găsește un adversar apropiat;
+// 204 = încă nimic (fereastra de rating se lărgește cât așteptăm), deci reîntrebăm.
+
+async function confirmRanked() {
+    if (fleet.length === 0 || placedShips.length !== fleet.length || rankedSearching) return;
+
+    rankedSearching = true;
+    rankedBtn.disabled = true;
+    boardSizeSelect.disabled = true;
+    rankedBtn.innerText = "⏳ Se caută adversar...";
+    rankedCancelBtn.style.display = "";
+
+    try {
+        while (rankedSearching) {
+            // a mutat navele în timpul căutării: ieșim din coadă, apasă din nou când e gata
+            if (placedShips.length !== fleet.length) {
+                cancelRanked();
+                return;
+            }
+            const response = await fetch(`${API_BASE_URL}/api/game/join?ranked=true&boardSize=${gridSize}`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json', ...authHeaders() },
+                body: JSON.stringify(placementPayload())
+            });
+
+            if (response.status === 204) continue;
+
+            if (response.ok) {
+                const data = await response.json();
+                rankedSearching = false;
+                localStorage.setItem("current_game_id", data.gameId);
+                window.location.href = "battle.html";
+                return;
+            } else if (response.status === 401) {
+                alert("Sesiunea a expirat. Loghează-te din nou.");
+                window.location.href = "index.html";
+                return;
+            } else if (response.status === 400) {
+                const data = await response.json().catch(() => ({}));
+                alert(data.error || "Aranjament invalid.");
+            } else {
+                alert("Eroare la conectare server.");
+            }
+            break;
+        }
+    } catch (error) {
+        console.error(error);
+        alert("Eroare de rețea.");
+    }
+    stopRankedSearch();
+}
+
+function cancelRanked() {
+    if (!rankedSearching) return;
+    rankedSearching = false;
+    sendRankedCancel(false);
+    stopRankedSearch();
+}
+
+function stopRankedSearch() {
+    rankedSearching = false;
+    rankedBtn.innerText = "🏆 Meci clasat (după rating)";
+    rankedCancelBtn.style.display = "none";
+    boardSizeSelect.disabled = false;
+    checkGameReady();
+}
+
+function sendRankedCancel(keepalive) {
+    fetch(`${API_BASE_URL}/api/game/join/cancel`, {
+        method: 'POST',
+        headers: authHeaders(),
+        keepalive
+    }).catch(() => {});
+}
+
+// Dacă plecăm de pe pagină în timpul căutării, ieșim din coadă
+window.addEventListener("pagehide", () => {
+    if (rankedSearching) sendRankedCancel(true);
+});
@@ -50,8 +50,11 @@ async function login() {
     messageBox.style.color = "#2ecc71";
     messageBox.innerText = "Logat! Se încarcă jocul...";
     
-    // 1. Salvăm numele jucătorului în memoria browserului
+    // 1. Salvăm numele jucătorului și tokenul de sesiune în memoria browserului
+    const data = JSON.parse(text);
     localStorage.setItem("connectedUser", username);
+    localStorage.setItem("battleboats_userid", data.userId);
+    localStorage.setItem("battleboats_token", data.token);
 
     // 2. Redirectăm către pagina de joc (pe care o creăm acum)
     setTimeout(() => {
@@ -0,0 +1,102 @@
+// Decodor pentru formatul binar compact (application/x-battleboats), vezi BinaryWire.java în backend.
+// Întoarce aceleași obiecte ca JSON-ul, deci restul codului din battle.html nu trebuie să știe de el.
+// Serverul trimite binar doar dacă îl cerem în Accept; erorile vin mereu ca JSON.
+(function () {
+  const MEDIA_TYPE = 'application/x-battleboats';
+  const STATUS = ['WAITING', 'ACTIVE', 'FINISHED'];
+
+  // Ce trimitem în Accept: binar dacă e activat în config.js, altfel doar JSON
+  const accept = () => (window.BINARY_WIRE ? `${MEDIA_TYPE}, application/json;q=0.9` : 'application/json');
+
+  function reader(buffer) {
+    const view = new DataView(buffer);
+    let pos = 0;
+    return {
+      u8: () => view.getUint8(pos++),
+      u16: () => { const v = view.getUint16(pos); pos += 2; return v; },
+      u32: () => { const v = view.getUint32(pos); pos += 4; return v; },
+      str: () => {
+        const len = view.getUint8(pos++);
+        if (len === 255) return null;
+        const s = new TextDecoder().decode(new Uint8Array(buffer, pos, len));
+        pos += len;
+        return s;
+      },
+      // bitmask de ceil(n/8) bytes => lista celulelor setate (celula i = bitul i%8 din byte-ul i/8)
+      mask: (cells) => {
+        const out = [];
+        for (let i = 0; i < cells; i++) {
+          if (view.getUint8(pos + (i >> 3)) & (1 << (i & 7))) out.push(i);
+        }
+        pos += (cells + 7) >> 3;
+        return out;
+      }
+    };
+  }
+
+  const status = (code) => STATUS[code] ?? null;
+  const player = (ref, p1, p2) => (ref === 1 ? p1 : ref === 2 ? p2 : null);
+
+  function decodeGame(r, kind) {
+    const game = { version: r.u32(), boardSize: r.u8(), status: status(r.u8()) };
+    const turn = r.u8(), winner = r.u8();
+    const role = kind === 1 ? r.u8() : 0;
+    game.player1Id = r.str();
+    game.player2Id = r.str();
+    game.currentTurn = player(turn, game.player1Id, game.player2Id);
+    game.winnerId = player(winner, game.player1Id, game.player2Id);
+
+    if (kind === 1) {
+      const cells = game.boardSize * game.boardSize;
+      game.role = role === 1 ? 'PLAYER1' : 'PLAYER2';
+      game.myOccupied = r.mask(cells);
+      game.shotsAtMe = r.mask(cells);
+      game.hitsAtMe = r.mask(cells);
+      game.shotsAtOpponent = r.mask(cells);
+      game.hitsAtOpponent = r.mask(cells);
+      return game;
+    }
+
+    game.shotsAtPlayer1 = []; game.hitsAtPlayer1 = [];
+    game.shotsAtPlayer2 = []; game.hitsAtPlayer2 = [];
+    for (let n = r.u16(); n > 0; n--) {
+      const move = r.u16();
+      const cell = move & 0x3fff;
+      const atP1 = (move & 0x8000) !== 0;
+      (atP1 ? game.shotsAtPlayer1 : game.shotsAtPlayer2).push(cell);
+      if (move & 0x4000) (atP1 ? game.hitsAtPlayer1 : game.hitsAtPlayer2).push(cell);
+    }
+    return game;
+  }
+
+  function decodeFire(r) {
+    const flags = r.u8();
+    return {
+      hit: (flags & 1) !== 0,
+      status: (flags & 2) ? 'GAME_OVER' : 'SHOT_FIRED',
+      index: r.u16(),
+      gameStatus: status(r.u8()),
+      nextTurn: r.str(),
+      winnerId: r.str()
+    };
+  }
+
+  function decode(buffer) {
+    const r = reader(buffer);
+    const kind = r.u8();
+    if (kind === 1 || kind === 2) return decodeGame(r, kind);
+    if (kind === 3) return decodeFire(r);
+    throw new Error('Format binar necunoscut: ' + kind);
+  }
+
+  // Body-ul unui răspuns, ca obiect, indiferent dacă a venit binar sau JSON (body gol => {})
+  async function read(response) {
+    const type = response.headers.get('Content-Type') || '';
+    if (type.startsWith(MEDIA_TYPE)) return decode(await response.arrayBuffer());
+    const raw = await response.text();
+    if (!raw) return {};
+    try { return JSON.parse(raw); } catch { return { error: raw }; }
+  }
+
+  window.BattleWire = { MEDIA_TYPE, accept, decode, read };
+})();
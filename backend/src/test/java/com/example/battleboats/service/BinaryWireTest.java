@@ -0,0 +1,205 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import com.example.battleboats.model.GameDelta;
+import com.example.battleboats.model.PlayerView;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link BinaryWire} citit înapoi de un decodor scris după descrierea formatului (ca static/wire.js)
+ * și comparat cu vederile JSON din care a fost codat.
+ */
+class BinaryWireTest {
+
+    private static final List<String> STATUSES = List.of("WAITING", "ACTIVE", "FINISHED");
+
+    @Test
+    void viewRoundTripsForBothPlayers() {
+        for (int size : new int[]{10, 20, 64}) {
+            Game game = playedGame(size, new Random(size), Integer.MAX_VALUE);
+            for (boolean player1 : new boolean[]{true, false}) {
+                PlayerView view = PlayerView.of(game, player1);
+                byte[] bytes = BinaryWire.encode(view);
+
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                assertEquals(BinaryWire.KIND_VIEW, buf.get());
+                assertEquals(view.getVersion(), buf.getInt());
+                assertEquals(size, buf.get() & 0xFF);
+                assertEquals(view.getStatus(), STATUSES.get(buf.get()));
+                int turn = buf.get(), winner = buf.get(), role = buf.get();
+                String p1 = getString(buf), p2 = getString(buf);
+                assertEquals(view.getPlayer1Id(), p1);
+                assertEquals(view.getPlayer2Id(), p2);
+                assertEquals(view.getCurrentTurn(), player(turn, p1, p2));
+                assertEquals(view.getWinnerId(), player(winner, p1, p2));
+                assertEquals(view.getRole(), role == 1 ? "PLAYER1" : "PLAYER2");
+
+                int maskBytes = (size * size + 7) / 8;
+                assertEquals(view.getMyOccupied(), getMask(buf, maskBytes));
+                assertEquals(view.getShotsAtMe(), getMask(buf, maskBytes));
+                assertEquals(view.getHitsAtMe(), getMask(buf, maskBytes));
+                assertEquals(view.getShotsAtOpponent(), getMask(buf, maskBytes));
+                assertEquals(view.getHitsAtOpponent(), getMask(buf, maskBytes));
+                assertFalse(buf.hasRemaining(), "bytes in plus la " + size);
+            }
+        }
+    }
+
+    @Test
+    void deltaRoundTripsShotOrderAndHits() {
+        Game game = playedGame(10, new Random(3), Integer.MAX_VALUE);
+        assertEquals("FINISHED", game.getStatus());
+
+        for (long since : new long[]{0, game.getVersion() / 2, game.getVersion()}) {
+            GameDelta delta = GameDelta.since(game, since);
+            ByteBuffer buf = ByteBuffer.wrap(BinaryWire.encode(delta));
+
+            assertEquals(BinaryWire.KIND_DELTA, buf.get());
+            assertEquals(delta.getVersion(), buf.getInt());
+            assertEquals(delta.getBoardSize(), buf.get() & 0xFF);
+            assertEquals(delta.getStatus(), STATUSES.get(buf.get()));
+            int turn = buf.get(), winner = buf.get();
+            String p1 = getString(buf), p2 = getString(buf);
+            assertEquals(delta.getCurrentTurn(), player(turn, p1, p2));
+            assertEquals(delta.getWinnerId(), player(winner, p1, p2));
+
+            List<Integer> shotsAt1 = new ArrayList<>(), hitsAt1 = new ArrayList<>();
+            List<Integer> shotsAt2 = new ArrayList<>(), hitsAt2 = new ArrayList<>();
+            int n = buf.getShort() & 0xFFFF;
+            for (int i = 0; i < n; i++) {
+                int shot = buf.getShort() & 0xFFFF;
+                int cell = shot & 0x3FFF;
+                boolean atPlayer1 = (shot & (1 << 15)) != 0;
+                (atPlayer1 ? shotsAt1 : shotsAt2).add(cell);
+                if ((shot & (1 << 14)) != 0) (atPlayer1 ? hitsAt1 : hitsAt2).add(cell);
+            }
+            assertFalse(buf.hasRemaining());
+
+            assertEquals(delta.getShotsAtPlayer1(), shotsAt1, "since " + since);
+            assertEquals(delta.getHitsAtPlayer1(), hitsAt1, "since " + since);
+            assertEquals(delta.getShotsAtPlayer2(), shotsAt2, "since " + since);
+            assertEquals(delta.getHitsAtPlayer2(), hitsAt2, "since " + since);
+        }
+    }
+
+    @Test
+    void waitingGameEncodesMissingOpponentAsNull() {
+        Game game = new Game("g", "alice");
+        game.setPlayer1Board(fleet(10, new Random(1)));
+
+        ByteBuffer buf = ByteBuffer.wrap(BinaryWire.encode(GameDelta.since(game, 0)));
+        buf.position(1 + 4 + 1);
+        assertEquals("WAITING", STATUSES.get(buf.get()));
+        assertEquals(1, buf.get()); // tura e la player1
+        assertEquals(0, buf.get());
+        assertEquals("alice", getString(buf));
+        assertNull(getString(buf));
+        assertEquals(0, buf.getShort());
+    }
+
+    @Test
+    void fireResult() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", "GAME_OVER");
+        result.put("index", 4095);
+        result.put("hit", true);
+        result.put("nextTurn", "bob");
+        result.put("gameStatus", "FINISHED");
+        result.put("winnerId", "bob");
+
+        ByteBuffer buf = ByteBuffer.wrap(BinaryWire.encodeFire(result));
+        assertEquals(BinaryWire.KIND_FIRE, buf.get());
+        assertEquals(3, buf.get());
+        assertEquals(4095, buf.getShort() & 0xFFFF);
+        assertEquals("FINISHED", STATUSES.get(buf.get()));
+        assertEquals("bob", getString(buf));
+        assertEquals("bob", getString(buf));
+        assertFalse(buf.hasRemaining());
+
+        result.put("status", "SHOT_FIRED");
+        result.put("hit", false);
+        result.put("gameStatus", "ACTIVE");
+        result.put("winnerId", null);
+        buf = ByteBuffer.wrap(BinaryWire.encodeFire(result));
+        buf.get();
+        assertEquals(0, buf.get());
+        buf.position(5);
+        assertEquals("bob", getString(buf));
+        assertNull(getString(buf));
+    }
+
+    @Test
+    void acceptsOnlyBinaryMediaType() {
+        assertTrue(BinaryWire.accepts("application/x-battleboats"));
+        assertTrue(BinaryWire.accepts("application/x-battleboats, application/json;q=0.5"));
+        assertFalse(BinaryWire.accepts("application/json"));
+        assertFalse(BinaryWire.accepts(null));
+    }
+
+    // --- Utilitare ---
+
+    // Doi jucători trag la rând în celule aleatoare; se oprește la final sau după maxShots
+    private static Game playedGame(int size, Random random, int maxShots) {
+        Game game = new Game("g-" + size, "alice");
+        game.setPlayer1Board(fleet(size, random));
+        game.setPlayer2Id("bob");
+        game.setPlayer2Board(fleet(size, random));
+        game.setStatus("ACTIVE");
+
+        List<Integer> at1 = shuffledCells(size, random), at2 = shuffledCells(size, random);
+        for (int shots = 0; shots < maxShots && "ACTIVE".equals(game.getStatus()); shots++) {
+            boolean shooterIsP1 = game.getCurrentTurn().equals(game.getPlayer1Id());
+            List<Integer> targets = shooterIsP1 ? at2 : at1;
+            GameService.applyShot(game, shooterIsP1, targets.remove(targets.size() - 1));
+        }
+        return game;
+    }
+
+    private static Board fleet(int size, Random random) {
+        Board board = new Board(size);
+        for (int i = 0; i < 17; i++) board.occupy(random.nextInt(size * size));
+        return board;
+    }
+
+    private static List<Integer> shuffledCells(int size, Random random) {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < size * size; i++) cells.add(i);
+        Collections.shuffle(cells, random);
+        return cells;
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int len = buf.get() & 0xFF;
+        if (len == 255) return null;
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<Integer> getMask(ByteBuffer buf, int maskBytes) {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < maskBytes; i++) {
+            int b = buf.get() & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                if ((b & (1 << bit)) != 0) cells.add(i * 8 + bit);
+            }
+        }
+        return cells;
+    }
+
+    private static String player(int ref, String p1, String p2) {
+        return ref == 1 ? p1 : ref == 2 ? p2 : null;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jurnalul scris cum îl scriu serviciile (codare sub monitorul jocului, append după), apoi
+ * "crash" (instanța veche nu e închisă) și refacere cu {@link GameJournalRecovery} într-un registry nou.
+ */
+class GameJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<GameJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws InterruptedException {
+        for (GameJournal journal : opened) journal.close();
+    }
+
+    @Test
+    void recoversGameExactlyAfterCrash() throws IOException {
+        GameJournal journal = openJournal(1 << 20, new GameRegistry(100));
+        Game game = playGame(journal, 7);
+
+        GameRegistry recovered = recover(1 << 20);
+
+        assertSameGame(game, recovered.get(game.getId()));
+    }
+
+    @Test
+    void recoversAcrossRotatedSegments() throws IOException {
+        // câteva înregistrări per segment => multe rotiri
+        GameJournal journal = openJournal(64, new GameRegistry(100));
+        Game game = playGame(journal, 12);
+        assertTrue(segments().size() > 3, "segmentele ar fi trebuit să se rotească");
+
+        GameRegistry recovered = recover(64);
+
+        assertSameGame(game, recovered.get(game.getId()));
+    }
+
+    @Test
+    void stopsCleanlyAtTornTail() throws IOException {
+        GameJournal journal = openJournal(1 << 20, new GameRegistry(100));
+        Game game = playGame(journal, 5);
+
+        // crash după copierea ultimei înregistrări, înainte să-i fie publicată lungimea
+        Path segment = segments().get(0);
+        int last = lastRecordOffset(segment);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(4), last);
+        }
+
+        Game restored = recover(1 << 20).get(game.getId());
+
+        // ultima tragere lipsește, restul jocului e exact ca înainte de ea
+        assertEquals(game.getMoveCount() - 1, restored.getMoveCount());
+        long[] moves = game.copyMoves();
+        assertArrayEquals(Arrays.copyOf(moves, moves.length - 1), restored.copyMoves());
+        assertEquals(Game.moveVersion(moves[moves.length - 2]), restored.getVersion());
+    }
+
+    @Test
+    void appliesRecordsInSequenceOrderAndKeepsRemovedGamesRemoved() throws IOException {
+        GameJournal journal = openJournal(1 << 20, new GameRegistry(100));
+        Game game = newGame("g1");
+        journal.append(journal.created(game));
+        byte[] matched = matched(journal, game);
+
+        // două request-uri: codate în ordine sub monitor, dar append-urile s-au întrecut
+        byte[] first = shoot(journal, game, 0);
+        byte[] second = shoot(journal, game, 1);
+        journal.append(second);
+        journal.append(first);
+        journal.append(matched);
+
+        Game removed = newGame("g2");
+        byte[] late = journal.created(removed);
+        journal.removed(removed.getId());
+        journal.append(late); // înregistrare întârziată după REMOVE
+
+        GameRegistry recovered = recover(1 << 20);
+
+        assertSameGame(game, recovered.get(game.getId()));
+        assertNull(recovered.get(removed.getId()));
+    }
+
+    @Test
+    void snapshotCompactsOlderSegments() throws IOException {
+        GameRegistry registry = new GameRegistry(100);
+        GameJournal journal = openJournal(256, registry);
+        Game game = playGame(journal, 6);
+        registry.put(game);
+
+        journal.snapshot(registry.all());
+        int firstKept = segmentIndex(segments().get(0));
+        // după snapshot jocul continuă; coada se aplică peste el
+        journal.append(shoot(journal, game, 50));
+        journal.append(shoot(journal, game, 51));
+
+        assertEquals(1, snapshots().size());
+        assertTrue(firstKept > 1, "segmentele de dinaintea snapshot-ului ar fi trebuit șterse");
+
+        assertSameGame(game, recover(256).get(game.getId()));
+    }
+
+    @Test
+    void alwaysWaitsForLowerReservationBeforeReturning() throws Exception {
+        GameJournal journal = openJournal(1 << 20, new GameRegistry(100), GameJournal.SyncPolicy.ALWAYS);
+        Game slow = newGame("slow");
+        Game fast = newGame("fast");
+
+        // un scriitor a rezervat loc înaintea noastră, dar încă nu și-a publicat lungimea
+        GameJournal.Segment seg = journal.current();
+        byte[] slowRecord = journal.created(slow);
+        int gap = journal.reserve(seg, 4 + slowRecord.length);
+        Thread appender = new Thread(() -> journal.append(journal.created(fast)));
+        appender.start();
+
+        appender.join(200);
+        assertTrue(appender.isAlive(), "append-ul ALWAYS a confirmat peste un gol nepublicat");
+
+        journal.publish(seg, gap, slowRecord);
+        appender.join(5000);
+        assertFalse(appender.isAlive());
+
+        GameRegistry recovered = recover(1 << 20);
+        assertSameGame(slow, recovered.get("slow"));
+        assertSameGame(fast, recovered.get("fast"));
+    }
+
+    @Test
+    void concurrentAlwaysAppendersAreAllRecovered() throws Exception {
+        // segmente mici: scriitorii se întrec și peste rotiri
+        GameJournal journal = openJournal(512, new GameRegistry(100), GameJournal.SyncPolicy.ALWAYS);
+        List<Game> games = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String id = "game-" + t;
+            Thread thread = new Thread(() -> {
+                Game game = playGame(journal, id, 20);
+                synchronized (games) {
+                    games.add(game);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+
+        GameRegistry recovered = recover(512);
+
+        assertEquals(8, games.size());
+        for (Game game : games) assertSameGame(game, recovered.get(game.getId()));
+    }
+
+    @Test
+    void appendAfterCloseRotatesWithoutFlusher() throws Exception {
+        GameJournal journal = openJournal(64, new GameRegistry(100), GameJournal.SyncPolicy.GROUP);
+        Game game = playGame(journal, 3);
+        journal.close();
+
+        // request-uri încă în zbor la oprire: rotesc segmentul și sunt forțate fără thread-ul de flush
+        journal.append(shoot(journal, game, 40));
+        journal.append(shoot(journal, game, 41));
+
+        assertSameGame(game, recover(64).get(game.getId()));
+    }
+
+    // --- Utilitare ---
+
+    private GameJournal openJournal(int segmentBytes, GameRegistry registry) throws IOException {
+        return openJournal(segmentBytes, registry, GameJournal.SyncPolicy.NONE);
+    }
+
+    private GameJournal openJournal(int segmentBytes, GameRegistry registry, GameJournal.SyncPolicy sync) throws IOException {
+        GameJournal journal = new GameJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "dir", dir);
+        ReflectionTestUtils.setField(journal, "segmentBytes", segmentBytes);
+        ReflectionTestUtils.setField(journal, "sync", sync);
+        ReflectionTestUtils.setField(journal, "groupCommitMs", 10L);
+        ReflectionTestUtils.setField(journal, "registry", registry);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    // Pornește un proces nou peste același director: jurnal nou + refacere în registry gol
+    private GameRegistry recover(int segmentBytes) throws IOException {
+        GameRegistry registry = new GameRegistry(100);
+        GameJournal journal = openJournal(segmentBytes, registry);
+
+        MatchmakingService matchmaking = new MatchmakingService();
+        BotOpponent bots = new BotOpponent();
+        ReflectionTestUtils.setField(bots, "registry", registry);
+
+        GameJournalRecovery recovery = new GameJournalRecovery();
+        ReflectionTestUtils.setField(recovery, "journal", journal);
+        ReflectionTestUtils.setField(recovery, "registry", registry);
+        ReflectionTestUtils.setField(recovery, "matchmaking", matchmaking);
+        ReflectionTestUtils.setField(recovery, "bots", bots);
+        recovery.recover();
+        return registry;
+    }
+
+    // Un joc între doi oameni, cu `shots` trageri alternând hit-uri și miss-uri
+    private Game playGame(GameJournal journal, int shots) {
+        return playGame(journal, "game-1", shots);
+    }
+
+    private Game playGame(GameJournal journal, String id, int shots) {
+        Game game = newGame(id);
+        journal.append(journal.created(game));
+        journal.append(matched(journal, game));
+        for (int i = 0; i < shots; i++) journal.append(shoot(journal, game, i % 2 == 0 ? i : 90 + i));
+        return game;
+    }
+
+    private static Game newGame(String id) {
+        Game game = new Game(id, "1");
+        game.setPlayer1Board(fleet());
+        return game;
+    }
+
+    private static byte[] matched(GameJournal journal, Game game) {
+        synchronized (game) {
+            game.setPlayer2Id("2");
+            game.setPlayer2Board(fleet());
+            game.setStatus("ACTIVE");
+            game.touch();
+            return journal.matched(game);
+        }
+    }
+
+    // Trage jucătorul de la rând, ca GameService.fire
+    private static byte[] shoot(GameJournal journal, Game game, int cell) {
+        synchronized (game) {
+            boolean shooterIsP1 = game.getCurrentTurn().equals(game.getPlayer1Id());
+            GameService.applyShot(game, shooterIsP1, cell);
+            return journal.shot(game, shooterIsP1, cell);
+        }
+    }
+
+    // Primele 30 de celule pare ocupate: destule ca jocul să nu se termine în teste
+    private static Board fleet() {
+        Board board = new Board(10);
+        for (int cell = 0; cell < 60; cell += 2) board.occupy(cell);
+        return board;
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertNotNull(actual, "jocul nu a fost refăcut");
+        assertEquals(expected.getPlayer1Id(), actual.getPlayer1Id());
+        assertEquals(expected.getPlayer2Id(), actual.getPlayer2Id());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCurrentTurn(), actual.getCurrentTurn());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getJournalSeq(), actual.getJournalSeq());
+        assertArrayEquals(expected.copyMoves(), actual.copyMoves());
+        assertEquals(expected.getPlayer1Board().occupiedCells(), actual.getPlayer1Board().occupiedCells());
+        assertEquals(expected.getPlayer2Board().shotCells(), actual.getPlayer2Board().shotCells());
+        assertEquals(expected.getPlayer2Board().hitCells(), actual.getPlayer2Board().hitCells());
+        assertEquals(expected.getPlayer1Board().shotCells(), actual.getPlayer1Board().shotCells());
+    }
+
+    private static int lastRecordOffset(Path segment) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int last = -1;
+        while (buf.remaining() >= 4) {
+            int len = buf.getInt(buf.position());
+            if (len <= 0) break;
+            last = buf.position();
+            buf.position(buf.position() + 4 + len);
+        }
+        return last;
+    }
+
+    private List<Path> segments() throws IOException {
+        return list("journal-");
+    }
+
+    private List<Path> snapshots() throws IOException {
+        return list("snapshot-");
+    }
+
+    private List<Path> list(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+
+    private static int segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+}
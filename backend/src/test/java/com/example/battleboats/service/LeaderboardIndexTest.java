@@ -0,0 +1,151 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.LeaderboardEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Treap-ul comparat cu un oracol simplu: lista tuturor userilor sortată la fiecare interogare,
+ * după aceeași ordine (wins desc, gamesPlayed desc, username asc).
+ */
+class LeaderboardIndexTest {
+
+    private static final class User {
+        final long id;
+        final String username;
+        int gamesPlayed;
+        int wins;
+
+        User(long id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+    }
+
+    private static final Comparator<User> ORDER = Comparator.<User>comparingInt(u -> -u.wins)
+            .thenComparingInt(u -> -u.gamesPlayed)
+            .thenComparing(u -> u.username)
+            .thenComparingLong(u -> u.id);
+
+    private final LeaderboardIndex index = new LeaderboardIndex();
+    private final List<User> users = new ArrayList<>();
+
+    @Test
+    void emptyIndex() {
+        assertEquals(0, index.size());
+        assertTrue(index.page(0, 10).isEmpty());
+        assertNull(index.rankOf("nimeni"));
+        assertTrue(index.around("nimeni", 2).isEmpty());
+    }
+
+    @Test
+    void matchesSortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        for (int step = 0; step < 3000; step++) {
+            if (users.isEmpty() || random.nextInt(10) == 0) {
+                // prefix aleator, ca ordinea după nume să nu urmeze ordinea înregistrării
+                addUser("u" + random.nextInt(100) + "-" + users.size());
+            } else {
+                User user = users.get(random.nextInt(users.size()));
+                int won = random.nextBoolean() ? 1 : 0;
+                user.gamesPlayed++;
+                user.wins += won;
+                index.applyDelta(user.id, 1, won);
+            }
+            if (step % 50 == 0) assertMatchesOracle(random);
+        }
+        assertMatchesOracle(random);
+    }
+
+    @Test
+    void tiesAreOrderedByGamesPlayedThenUsername() {
+        User carol = addUser("carol");
+        User alice = addUser("alice");
+        User bob = addUser("bob");
+        play(carol, 3, 2);
+        play(alice, 2, 2);
+        play(bob, 2, 2);
+
+        List<String> names = index.page(0, 10).stream().map(r -> r.entry().getUsername()).toList();
+        assertEquals(List.of("carol", "alice", "bob"), names);
+        assertEquals(2, index.rankOf("alice").rank());
+    }
+
+    @Test
+    void addUserIsIdempotent() {
+        User user = addUser("dan");
+        play(user, 4, 1);
+        index.addUser(user.id, user.username);
+
+        assertEquals(1, index.size());
+        assertEquals(4, index.rankOf("dan").entry().getGamesPlayed());
+    }
+
+    @Test
+    void unknownUserDeltaIsIgnored() {
+        addUser("eve");
+        index.applyDelta(999, 1, 1);
+
+        assertEquals(1, index.size());
+        assertEquals(0, index.rankOf("eve").entry().getWins());
+    }
+
+    private User addUser(String username) {
+        User user = new User(users.size() + 1, username);
+        users.add(user);
+        index.addUser(user.id, username);
+        return user;
+    }
+
+    private void play(User user, int games, int wins) {
+        user.gamesPlayed += games;
+        user.wins += wins;
+        index.applyDelta(user.id, games, wins);
+    }
+
+    private void assertMatchesOracle(Random random) {
+        List<User> sorted = users.stream().sorted(ORDER).toList();
+        assertEquals(sorted.size(), index.size());
+
+        // pagini, inclusiv una care trece de final și una complet în afară
+        for (int offset : new int[]{0, 1, sorted.size() / 2, Math.max(0, sorted.size() - 3), sorted.size(), sorted.size() + 5}) {
+            int limit = 1 + random.nextInt(20);
+            List<LeaderboardIndex.Ranked> page = index.page(offset, limit);
+            assertEquals(Math.max(0, Math.min(limit, sorted.size() - offset)), page.size(), "offset " + offset);
+            for (int i = 0; i < page.size(); i++) {
+                assertEquals(offset + i + 1, page.get(i).rank());
+                assertSameUser(sorted.get(offset + i), page.get(i).entry());
+            }
+        }
+
+        // rank-ul fiecărui user și vecinii lui
+        for (int i = 0; i < sorted.size(); i++) {
+            User user = sorted.get(i);
+            LeaderboardIndex.Ranked ranked = index.rankOf(user.username);
+            assertEquals(i + 1, ranked.rank(), user.username);
+            assertSameUser(user, ranked.entry());
+
+            int radius = 2;
+            List<LeaderboardIndex.Ranked> around = index.around(user.username, radius);
+            int from = Math.max(0, i - radius);
+            int to = Math.min(sorted.size(), from + 2 * radius + 1);
+            assertEquals(to - from, around.size());
+            for (int k = 0; k < around.size(); k++) {
+                assertEquals(from + k + 1, around.get(k).rank());
+                assertSameUser(sorted.get(from + k), around.get(k).entry());
+            }
+        }
+    }
+
+    private static void assertSameUser(User expected, LeaderboardEntry actual) {
+        assertEquals(expected.username, actual.getUsername());
+        assertEquals(expected.gamesPlayed, actual.getGamesPlayed());
+        assertEquals(expected.wins, actual.getWins());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.battleboats.service;
+
+import com.example.battleboats.model.Board;
+import com.example.battleboats.model.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Flush-ul istoricului cu un JdbcTemplate simulat: un rând stricat nu trebuie să blocheze restul,
+ * iar o eroare tranzitorie nu trebuie să piardă nimic.
+ */
+class MatchHistoryServiceTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final MatchHistoryService history = new MatchHistoryService();
+
+    // game_id-urile scrise, în ordine, și cel respins de DB (null = niciunul)
+    private final List<String> written = new ArrayList<>();
+    private String poisoned;
+    private int nextGame;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        TransactionTemplate tx = mock(TransactionTemplate.class);
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(tx).executeWithoutResult(any());
+
+        ReflectionTestUtils.setField(history, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(history, "transactionTemplate", tx);
+        ReflectionTestUtils.setField(history, "queueSize", 100);
+        ReflectionTestUtils.setField(history, "batchSize", 10);
+        history.init();
+
+        // batch-ul e atomic: pică tot dacă are rândul stricat
+        when(jdbc.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class))).thenAnswer(inv -> {
+            Collection<Object> rows = inv.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = inv.getArgument(3);
+            List<String> ids = new ArrayList<>();
+            for (Object row : rows) ids.add(bind(ps -> setter.setValues(ps, row)));
+            if (ids.contains(poisoned)) throw new DataIntegrityViolationException("Duplicate entry " + poisoned);
+            written.addAll(ids);
+            return new int[0][];
+        });
+        when(jdbc.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(inv -> {
+            PreparedStatementSetter setter = inv.getArgument(1);
+            String id = bind(setter::setValues);
+            if (id.equals(poisoned)) throw new DataIntegrityViolationException("Duplicate entry " + id);
+            written.add(id);
+            return 1;
+        });
+    }
+
+    @Test
+    void writesAllRowsInBatches() {
+        finish(25);
+
+        history.flush();
+
+        assertEquals(25, written.size());
+        assertEquals(0, history.getPendingCount());
+        verify(jdbc, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void poisonedRowIsDroppedAndTheRestWritten() {
+        finish(25);
+        poisoned = "g-13";
+
+        history.flush();
+
+        assertEquals(24, written.size());
+        assertFalse(written.contains("g-13"));
+        assertEquals(0, history.getPendingCount());
+        assertEquals(1, history.getDropped());
+
+        // flush-urile următoare nu mai dau de el
+        finish(1);
+        history.flush();
+        assertEquals(25, written.size());
+    }
+
+    @Test
+    void transientErrorRequeuesTheWholeBatch() {
+        finish(5);
+        when(jdbc.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        history.flush();
+
+        assertTrue(written.isEmpty());
+        assertEquals(5, history.getPendingCount());
+        assertEquals(0, history.getDropped());
+        verify(jdbc, never()).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void transientErrorWhileRetryingRowsRequeuesTheRest() {
+        finish(5);
+        poisoned = "g-0";
+        when(jdbc.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("bad"))
+                .thenReturn(1)
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        history.flush();
+
+        // g-0 respins, g-1 scris, g-2..g-4 înapoi în coadă
+        assertEquals(3, history.getPendingCount());
+        assertEquals(1, history.getDropped());
+    }
+
+    // --- Utilitare ---
+
+    private void finish(int count) {
+        for (int i = 0; i < count; i++) {
+            Game game = new Game("g-" + nextGame++, "1");
+            game.setPlayer1Board(new Board(10));
+            game.setPlayer2Id("2");
+            game.setPlayer2Board(new Board(10));
+            game.setWinnerId("1");
+            history.finished(game);
+        }
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement ps) throws Exception;
+    }
+
+    // game_id-ul (primul parametru) pus de setter-ul serviciului
+    private static String bind(Binder binder) throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        binder.bind(ps);
+        ArgumentCaptor<String> id = ArgumentCaptor.forClass(String.class);
+        verify(ps).setString(eq(1), id.capture());
+        return id.getValue();
+    }
+}
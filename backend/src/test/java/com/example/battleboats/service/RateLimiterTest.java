@@ -0,0 +1,130 @@
+package com.example.battleboats.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bucket-urile GCRA din {@link RateLimiter}. Limitele lente (un token la 100 s) fac testele
+ * independente de ceas: în timpul testului nu se mai adaugă niciun token.
+ */
+class RateLimiterTest {
+
+    private static final double SLOW = 0.01; // un token la 100 s
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    @Test
+    void burstThenRetryAfterOneInterval() {
+        RateLimiter limiter = limiter(SLOW, 5, 1000);
+
+        for (int i = 0; i < 5; i++) assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u1"), "request " + i);
+
+        long wait = limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u1");
+        assertTrue(wait > TimeUnit.SECONDS.toNanos(99) && wait <= TimeUnit.SECONDS.toNanos(100), "wait " + wait);
+        // un request respins nu consumă: următorul are de așteptat tot cam atât
+        long again = limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u1");
+        assertTrue(again > 0 && again <= wait, "again " + again);
+        assertEquals(2.0, meters.get("battleboats.ratelimit.throttled").tag("endpoint", "fire").counter().count());
+    }
+
+    @Test
+    void keysAndEndpointsAreIndependent() {
+        RateLimiter limiter = limiter(SLOW, 1, 1000);
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u1"));
+        assertTrue(limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u1") > 0);
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u2"));
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.STATUS, "u1"));
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.POLL, "u1"));
+        assertEquals(4, limiter.getKeyCount());
+    }
+
+    @Test
+    void refillsAfterInterval() throws InterruptedException {
+        RateLimiter limiter = limiter(1000, 1, 1000); // un token la 1 ms
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.JOIN, "u1"));
+        assertTrue(limiter.tryAcquire(RateLimiter.Endpoint.JOIN, "u1") > 0);
+        Thread.sleep(5);
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.JOIN, "u1"));
+    }
+
+    @Test
+    void keysOverCapPassUntracked() {
+        RateLimiter limiter = limiter(SLOW, 1, 2);
+
+        limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u1");
+        limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u2");
+        for (int i = 0; i < 3; i++) assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u3"));
+
+        assertEquals(2, limiter.getKeyCount());
+        assertEquals(3, limiter.getUntracked());
+        // cheile deja urmărite rămân limitate
+        assertTrue(limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "u1") > 0);
+    }
+
+    @Test
+    void evictsOnlyRefilledBuckets() throws InterruptedException {
+        RateLimiter limiter = limiter(SLOW, 1, 1000);
+        ReflectionTestUtils.setField(limiter, "joinPerSecond", 1000.0); // doar join se umple repede
+        limiter.init();
+        limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "slow");
+        limiter.tryAcquire(RateLimiter.Endpoint.JOIN, "fast");
+        Thread.sleep(5);
+
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.getKeyCount());
+        assertTrue(limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "slow") > 0);
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Endpoint.JOIN, "fast"));
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedBurst() throws InterruptedException {
+        int burst = 100;
+        RateLimiter limiter = limiter(SLOW, burst, 1000);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 50; i++) {
+                    if (limiter.tryAcquire(RateLimiter.Endpoint.FIRE, "hot") == 0) accepted.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(burst, accepted.get());
+    }
+
+    private RateLimiter limiter(double perSecond, int burst, int maxKeys) {
+        RateLimiter limiter = new RateLimiter();
+        ReflectionTestUtils.setField(limiter, "metrics", new GameMetrics(meters));
+        ReflectionTestUtils.setField(limiter, "maxKeys", maxKeys);
+        for (String endpoint : new String[]{"join", "fire", "status", "poll"}) {
+            ReflectionTestUtils.setField(limiter, endpoint + "PerSecond", perSecond);
+            ReflectionTestUtils.setField(limiter, endpoint + "Burst", burst);
+        }
+        limiter.init();
+        return limiter;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.battleboats.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comasarea deltelor din {@link StatsWriteBehind}: oricum am grupa jocurile în delte, aplicate peste
+ * current_streak / best_streak (cu aceeași formulă ca UPDATE-ul) trebuie să dea ce dă jocul cu joc.
+ */
+class StatsWriteBehindTest {
+
+    // Seriile din DB, înainte și după un UPDATE
+    private record Streaks(int current, int best) {
+
+        // UPDATE_STATS_SQL: best_streak întâi, apoi current_streak
+        Streaks apply(StatsWriteBehind.Delta d) {
+            int best = Math.max(this.best, Math.max(current + d.lead(), d.loss() ? d.best() : 0));
+            int current = d.loss() ? d.trail() : this.current + d.lead();
+            return new Streaks(current, best);
+        }
+
+        Streaks play(boolean won) {
+            int current = won ? this.current + 1 : 0;
+            return new Streaks(current, Math.max(best, current));
+        }
+    }
+
+    @Test
+    void singleGames() {
+        Streaks start = new Streaks(2, 5);
+        assertEquals(new Streaks(3, 5), start.apply(delta(outcome(true))));
+        assertEquals(new Streaks(0, 5), start.apply(delta(outcome(false))));
+        assertEquals(new Streaks(6, 6), new Streaks(5, 5).apply(delta(outcome(true))));
+    }
+
+    @Test
+    void streakInsideOneDeltaBeatsOldBest() {
+        // L W W W L W: seria de 3 e închisă în interiorul deltei
+        StatsWriteBehind.Delta d = merge(games("LWWWLW"));
+        assertEquals(new Streaks(1, 3), new Streaks(1, 2).apply(d));
+    }
+
+    @Test
+    void leadingWinsExtendCurrentStreak() {
+        StatsWriteBehind.Delta d = merge(games("WWLW"));
+        assertEquals(new Streaks(1, 6), new Streaks(4, 5).apply(d));
+    }
+
+    @Test
+    void anyGroupingMatchesGameByGame() {
+        Random random = new Random(7);
+        for (int round = 0; round < 5000; round++) {
+            List<StatsWriteBehind.Outcome> outcomes = new ArrayList<>();
+            int n = 1 + random.nextInt(14);
+            for (int i = 0; i < n; i++) outcomes.add(randomOutcome(random));
+
+            int current = random.nextInt(6);
+            Streaks start = new Streaks(current, current + random.nextInt(6));
+            Streaks expected = start;
+            for (StatsWriteBehind.Outcome o : outcomes) expected = expected.play(o.won());
+
+            // o deltă pentru tot, apoi bucăți comasate între ele (asociativitate), apoi bucăți aplicate pe rând
+            assertEquals(expected, start.apply(merge(outcomes)), outcomes::toString);
+            assertEquals(expected, start.apply(mergeInChunks(outcomes, random)), outcomes::toString);
+            Streaks stepwise = start;
+            for (List<StatsWriteBehind.Outcome> chunk : chunks(outcomes, random)) stepwise = stepwise.apply(merge(chunk));
+            assertEquals(expected, stepwise, outcomes::toString);
+        }
+    }
+
+    @Test
+    void sumsAddUp() {
+        List<StatsWriteBehind.Outcome> outcomes = List.of(
+                new StatsWriteBehind.Outcome(true, 30, 20, 60_000, 16),
+                new StatsWriteBehind.Outcome(false, 40, 15, -1, -12),
+                new StatsWriteBehind.Outcome(true, 25, 20, 45_000, 10));
+        StatsWriteBehind.Delta d = merge(outcomes);
+
+        assertEquals(3, d.gamesPlayed());
+        assertEquals(2, d.wins());
+        assertEquals(14, d.rating());
+        assertEquals(95, d.shots());
+        assertEquals(55, d.hits());
+        assertEquals(55, d.shotsInWins());
+        assertEquals(2, d.timedGames()); // jocul cu durată necunoscută nu intră în medie
+        assertEquals(105_000, d.durationMs());
+    }
+
+    // --- Utilitare ---
+
+    private static StatsWriteBehind.Outcome outcome(boolean won) {
+        return new StatsWriteBehind.Outcome(won, 10, won ? 10 : 5, 1000, 0);
+    }
+
+    private static StatsWriteBehind.Outcome randomOutcome(Random random) {
+        return new StatsWriteBehind.Outcome(random.nextBoolean(), 17 + random.nextInt(50), random.nextInt(18),
+                random.nextInt(5) == 0 ? -1 : random.nextInt(600_000), random.nextInt(41) - 20);
+    }
+
+    private static List<StatsWriteBehind.Outcome> games(String results) {
+        List<StatsWriteBehind.Outcome> outcomes = new ArrayList<>();
+        for (char c : results.toCharArray()) outcomes.add(outcome(c == 'W'));
+        return outcomes;
+    }
+
+    private static StatsWriteBehind.Delta delta(StatsWriteBehind.Outcome o) {
+        return StatsWriteBehind.Delta.of(o);
+    }
+
+    // Ca pending.merge(userId, Delta.of(o), Delta::plus), joc cu joc
+    private static StatsWriteBehind.Delta merge(List<StatsWriteBehind.Outcome> outcomes) {
+        StatsWriteBehind.Delta d = null;
+        for (StatsWriteBehind.Outcome o : outcomes) d = d == null ? delta(o) : d.plus(delta(o));
+        return d;
+    }
+
+    // Ca la un flush eșuat: delta veche pusă înaintea celei noi (older.plus(newer))
+    private static StatsWriteBehind.Delta mergeInChunks(List<StatsWriteBehind.Outcome> outcomes, Random random) {
+        StatsWriteBehind.Delta d = null;
+        for (List<StatsWriteBehind.Outcome> chunk : chunks(outcomes, random)) {
+            StatsWriteBehind.Delta next = merge(chunk);
+            d = d == null ? next : d.plus(next);
+        }
+        return d;
+    }
+
+    private static List<List<StatsWriteBehind.Outcome>> chunks(List<StatsWriteBehind.Outcome> outcomes, Random random) {
+        List<List<StatsWriteBehind.Outcome>> chunks = new ArrayList<>();
+        int i = 0;
+        while (i < outcomes.size()) {
+            int end = Math.min(outcomes.size(), i + 1 + random.nextInt(4));
+            chunks.add(outcomes.subList(i, end));
+            i = end;
+        }
+        return chunks;
+    }
+}